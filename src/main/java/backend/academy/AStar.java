@@ -1,124 +1,136 @@
 package backend.academy;
 
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Optional;
 import lombok.Getter;
 import static backend.academy.Utils.OUT;
 
 /**
  * AStar class implements the A* pathfinding algorithm for finding the shortest path
- * through a maze. It utilizes a heuristic (Manhattan distance) to optimize the pathfinding
- * process. This class marks the path within the maze and can print the maze with the
- * path highlighted.
+ * through a maze. It utilizes a heuristic (Manhattan distance by default) to optimize the
+ * pathfinding process. This class marks the path within the maze and can print the maze with
+ * the path highlighted.
+ * <p>The player has a limited number of lives: a '$' passage (weight 1) gives one back,
+ * up to the maximum, and a '~' passage (weight 3) takes one away. A path is valid only
+ * if the lives never run out. The search therefore runs over states (cell, lives),
+ * packed into one int: {@code state = cellId * (MAX_LIVES + 1) + lives}.</p>
+ * <p>A state is skipped when the same cell is already reached with at least as many
+ * lives at no greater cost (Pareto dominance), so most cells are expanded with one
+ * or two live counts instead of all of them.</p>
+ * <p>The open set is an {@link IndexedMinHeap} of states keyed by f-score: a state whose
+ * score improves is moved up in place, so the open set never holds more entries than
+ * there are states.</p>
+ * <p>With a {@link PathCache} a query answered before on an equal maze is taken from the cache
+ * and {@link #expandedStates()} stays 0.</p>
  * <p>This algorithm is designed for weighted graphs.</p>
  */
 public class AStar implements MazePathFinder {
+    public static final int MAX_LIVES = 3; // Maximum number of lives
+    public static final int NO_PATH = -1;
+    private static final int LIVES_PER_CELL = MAX_LIVES + 1;  // Lives 0..MAX_LIVES, 0 is never stored
+    private static final int GOOD_WEIGHT = 1;
+    private static final int BAD_WEIGHT = 3;
+    private static final int CELL_WIDTH = 5;  // Width of each cell in the string representation
+
     private final @Getter boolean[][] obstacle;
-    private final int[][] gScore;  // Real path costs
-    private final int[][] fScore;  // Heuristic function (g + heuristic)
-    private final Cell[][] cameFrom;  // To reconstruct the path
+    private final int[] gScore;  // Real path costs, by state
+    private final int[] cameFrom;  // Parent states to reconstruct the path
+    private final IndexedMinHeap openSet;  // States to be explored, keyed by f-score (g + heuristic)
     private final AbstractGraphMaze maze;
-    private static final int CELL_WIDTH = 5;  // Width of each cell in the string representation
-    private static final int MAX_LIVES = 3; // Maximum number of lives
-    private static final int BAD_WEIGHT = 3;
+    private final PathCache cache;  // May be null
+    private final Heuristic heuristic;
+    private @Getter int pathCost = NO_PATH;  // Cost of the path found by the last search
+    private @Getter int expandedStates;      // States expanded by the last search
 
     public AStar(AbstractGraphMaze maze) {
+        this(maze, null);
+    }
+
+    public AStar(AbstractGraphMaze maze, PathCache cache) {
+        this(maze, cache, Heuristic.MANHATTAN);
+    }
+
+    /**
+     * @param heuristic lower bound of the remaining cost, e.g. {@link Landmarks} of the current maze
+     */
+    public AStar(AbstractGraphMaze maze, PathCache cache, Heuristic heuristic) {
         this.maze = maze;
+        this.cache = cache;
+        this.heuristic = heuristic;
         this.obstacle = new boolean[maze.height()][maze.width()];
-        this.gScore = new int[maze.height()][maze.width()];
-        this.fScore = new int[maze.height()][maze.width()];
-        this.cameFrom = new Cell[maze.height()][maze.width()];
-        initializeObstacles();
+        int states = maze.width() * maze.height() * LIVES_PER_CELL;
+        this.gScore = new int[states];
+        this.cameFrom = new int[states];
+        this.openSet = new IndexedMinHeap(states);
+        resetPath();
+        resetSearch();
     }
 
-    private void initializeObstacles() {
+    private void resetPath() {
         for (int i = 0; i < maze.height(); i++) {
-            for (int j = 0; j < maze.width(); j++) {
-                obstacle[i][j] = true; // By default, all cells are obstacles
-                gScore[i][j] = Integer.MAX_VALUE;
-                fScore[i][j] = Integer.MAX_VALUE;
-                cameFrom[i][j] = null;
-            }
+            Arrays.fill(obstacle[i], true); // By default, all cells are obstacles
+        }
+        pathCost = NO_PATH;
+        expandedStates = 0;
+    }
+
+    private void resetSearch() {
+        Arrays.fill(gScore, Integer.MAX_VALUE);
+        Arrays.fill(cameFrom, -1);
+        openSet.clear();
+    }
+
+    private static int state(int cell, int lives) {
+        return cell * LIVES_PER_CELL + lives;
+    }
+
+    // Lives left after walking a passage of the given weight, 0 if the player dies on it
+    private static int livesAfter(int lives, int weight) {
+        if (weight == GOOD_WEIGHT) {
+            return Math.min(MAX_LIVES, lives + 1);
         }
+        return weight == BAD_WEIGHT ? lives - 1 : lives;
     }
 
-    // Heuristic function: Manhattan distance
-    private int heuristic(Cell current, Cell goal) {
-        return Math.abs(current.row() - goal.row()) + Math.abs(current.col() - goal.col());
+    // True if the cell is already reached with at least the given lives for at most the given cost
+    private boolean isDominated(int cell, int lives, int cost, int exceptState) {
+        for (int more = lives; more <= MAX_LIVES; more++) {
+            int other = state(cell, more);
+            if (other != exceptState && gScore[other] <= cost) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Finds the path from the start cell to the goal cell using the A* algorithm
+     * Finds the cheapest path from the start cell to the goal cell using the A* algorithm
      * with the condition that the player has a limited number of lives.
      */
     @Override
     public void findPath(int startX, int startY, int endX, int endY) {
         try {
-            Cell start = new Cell(startX, startY);
-            Cell goal = new Cell(endX, endY);
-            boolean reachedGoal = false;
-
-            // Priority queue to store the cells to be explored
-            PriorityQueue<PathState> openSet =
-                new PriorityQueue<>(Comparator.comparingInt(s -> fScore[s.cell().row()][s.cell().col()]));
-            openSet.add(new PathState(start, MAX_LIVES));
-
-            gScore[start.row()][start.col()] = 0;
-            fScore[start.row()][start.col()] = heuristic(start, goal);
-
-            while (!openSet.isEmpty()) {
-                PathState currentState = openSet.poll();
-                Cell current = currentState.cell();
-                int currentLives = currentState.lives();
-
-                // If the goal is reached and the condition of lives is satisfied
-                if (current.equals(goal)) {
-                    if (currentLives > 0) {
-                        reconstructPath(goal);
-                        reachedGoal = true;
-                    } else {
-                        OUT.println("No valid path found with enough lives.");
-                        reachedGoal = true;
-                    }
-                }
-                if (reachedGoal) {
-                    return;
-                }
-
-                List<Edge> neighbors = getNeighbors(current);
-                for (Edge edge : neighbors) {
-                    Cell neighbor = (edge.cell1().equals(current)) ? edge.cell2() : edge.cell1();
-
-                    int tentativeGScore = gScore[current.row()][current.col()] + edge.weight();
-                    int tentativeLives = currentLives;
-
-                    // Adjust lives based on the edge weight
-                    if (edge.weight() == 1) {
-                        tentativeLives = Math.max(MAX_LIVES, tentativeLives + 1);
-                    } else if (edge.weight() == BAD_WEIGHT) {
-                        tentativeLives--;  // Lose one life
-                        // If no lives remain, skip this path
-                        if (tentativeLives <= 0) {
-                            continue;
-                        }
-                    }
-
-                    if (tentativeGScore < gScore[neighbor.row()][neighbor.col()]) {
-                        cameFrom[neighbor.row()][neighbor.col()] = current;
-                        gScore[neighbor.row()][neighbor.col()] = tentativeGScore;
-                        fScore[neighbor.row()][neighbor.col()] =
-                            gScore[neighbor.row()][neighbor.col()] + heuristic(neighbor, goal);
-
-                        openSet.add(new PathState(neighbor, tentativeLives));
-                    }
+            MazeGraph graph = maze.graph();
+            int start = graph.cellId(startX, startY);
+            int goal = graph.cellId(endX, endY);
+            resetPath(); // Forget the previous query
+            if (cache != null) {
+                Optional<EncodedPath> found = cache.get(graph, PathCache.Solver.A_STAR, start, goal,
+                    key -> encode(graph, search(graph, key)));
+                found.ifPresent(path -> markPath(graph, path.decode(graph.width())));
+            } else {
+                PathCache.Key query = new PathCache.Key(PathCache.Solver.A_STAR, graph.fingerprint(), start, goal);
+                int goalState = search(graph, query);
+                if (goalState != NO_PATH) {
+                    pathCost = gScore[goalState];
+                    reconstructPath(graph, goalState);
                 }
             }
 
-            // If the open set is empty and we haven't found a valid path
-            OUT.println("No valid path found.");
-
+            if (pathCost == NO_PATH) {
+                OUT.println("No valid path found with enough lives.");
+            }
         } catch (ArrayIndexOutOfBoundsException e) {
             OUT.println("Error: Attempted to access an invalid index in the maze: " + e.getMessage());
         } catch (Exception e) {
@@ -126,22 +138,92 @@ public class AStar implements MazePathFinder {
         }
     }
 
-    private List<Edge> getNeighbors(Cell cell) {
-        List<Edge> neighbors = new ArrayList<>();
-        List<Edge> edges = maze.mazeEdges();  // Assumes that the maze edges contain weight information
-        for (Edge edge : edges) {
-            if (edge.cell1().equals(cell) || edge.cell2().equals(cell)) {
-                neighbors.add(edge);
+    // Runs the search and returns the cheapest goal state, or NO_PATH if the goal cannot be reached alive
+    private int search(MazeGraph graph, PathCache.Key query) {
+        int goal = query.goal();
+        CsrAdjacency adjacency = graph.csr();
+        resetSearch();
+
+        int startState = state(query.start(), MAX_LIVES);
+        gScore[startState] = 0;
+        openSet.insertOrDecrease(startState, heuristic.estimate(graph, query.start(), goal));
+
+        while (!openSet.isEmpty()) {
+            int currentState = openSet.poll();
+            int current = currentState / LIVES_PER_CELL;
+            int currentLives = currentState % LIVES_PER_CELL;
+            int currentCost = gScore[currentState];
+            if (isDominated(current, currentLives, currentCost, currentState)) {
+                continue; // A label found later is at least as good
+            }
+            expandedStates++;
+
+            // The first goal state taken from the open set is the cheapest one
+            if (current == goal) {
+                return currentState;
+            }
+
+            int end = adjacency.offset(current + 1);
+            for (int passage = adjacency.offset(current); passage < end; passage++) {
+                int neighbor = adjacency.target(passage);
+                int weight = adjacency.weight(passage);
+                int tentativeLives = livesAfter(currentLives, weight);
+                int tentativeGScore = currentCost + weight;
+                // If no lives remain, or a better label exists, skip this path
+                if (tentativeLives <= 0 || isDominated(neighbor, tentativeLives, tentativeGScore, -1)) {
+                    continue;
+                }
+
+                int neighborState = state(neighbor, tentativeLives);
+                cameFrom[neighborState] = currentState;
+                gScore[neighborState] = tentativeGScore;
+                openSet.insertOrDecrease(neighborState, tentativeGScore + heuristic.estimate(graph, neighbor, goal));
+            }
+        }
+        return NO_PATH;
+    }
+
+    // The path may pass a cell twice with different lives, so it is counted before it is copied
+    private EncodedPath encode(MazeGraph graph, int goalState) {
+        if (goalState == NO_PATH) {
+            return null;
+        }
+        int length = 0;
+        for (int state = goalState; state != -1; state = cameFrom[state]) {
+            length++;
+        }
+        int[] cells = new int[length];
+        for (int state = goalState; state != -1; state = cameFrom[state]) {
+            cells[--length] = state / LIVES_PER_CELL;
+        }
+        return EncodedPath.of(cells, cells.length, graph.width());
+    }
+
+    // Marks a path taken from the cache and sums up its cost
+    private void markPath(MazeGraph graph, int[] cells) {
+        int cost = 0;
+        for (int i = 0; i < cells.length; i++) {
+            obstacle[graph.row(cells[i])][graph.col(cells[i])] = false;
+            if (i > 0) {
+                Direction direction = Direction.between(graph.row(cells[i - 1]), graph.col(cells[i - 1]),
+                    graph.row(cells[i]), graph.col(cells[i]));
+                cost += graph.weight(cells[i - 1], direction);
             }
         }
-        return neighbors;
+        pathCost = cost;
+    }
+
+    /** Returns the largest number of states the open set held during the last search. */
+    public int peakOpenSetSize() {
+        return openSet.peakSize();
     }
 
-    private void reconstructPath(Cell goal) {
-        Cell current = goal;
-        while (current != null) {
-            obstacle[current.row()][current.col()] = false; // Mark the path
-            current = cameFrom[current.row()][current.col()];
+    private void reconstructPath(MazeGraph graph, int goalState) {
+        int current = goalState;
+        while (current != -1) {
+            int cell = current / LIVES_PER_CELL;
+            obstacle[graph.row(cell)][graph.col(cell)] = false; // Mark the path
+            current = cameFrom[current];
         }
     }
 
@@ -181,8 +263,4 @@ public class AStar implements MazePathFinder {
         }
         OUT.println();
     }
-
-    // Helper class to track the state of a path (cell and lives left)
-    private record PathState(Cell cell, int lives) {
-    }
 }
@@ -3,43 +3,51 @@ package backend.academy;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import lombok.AccessLevel;
 import lombok.Getter;
 import static backend.academy.Utils.OUT;
 
 /** This class is a framework for implementing matrix generation algorithms.
  * Should be using for algorithms that using graphs.
  * <p>Using this class, you must implement the generateMaze() method.</p>
- * You should change mazeEdges field in generateMaze() method -
- * this field should contain passages in your generated maze.
- * Use addMazeEdge() method for it.  **/
+ * You should open passages of the wall grid in generateMaze() method -
+ * the grid is the source of truth for the generated maze.
+ * Use addMazeEdge() method for it.
+ * <p>After generation the maze can be changed with openPassage() and closePassage();
+ * every change is reported to the registered {@link MazeChangeListener}s.</p> **/
 public abstract class AbstractGraphMaze implements Maze {
-    private final List<Edge> edges = new ArrayList<>();
-    private final List<Edge> mazeEdges = new ArrayList<>();
+    private final boolean useWeighs;
+    private List<Edge> edges;  // All possible passages, built on the first call of edges()
+    private final @Getter(AccessLevel.PROTECTED) WallGrid grid;
+    private final @Getter(AccessLevel.PROTECTED) MazeRandom random;
     private final @Getter int height;
     private final @Getter int width;
+    private final List<MazeChangeListener> listeners = new ArrayList<>();
 
 
     // the fields for implement the context
-    private static final int LOW_WEIGHT = 1;
-    private static final int HIGH_WEIGHT = 3;
-    private static final int DEFAULT_WEIGHT = 2;
+    protected static final int LOW_WEIGHT = 1;
+    protected static final int HIGH_WEIGHT = 3;
+    protected static final int DEFAULT_WEIGHT = 2;
     private static final String LOW_WEIGHT_SYMBOL = " $  ";
     private static final String HIGH_WEIGHT_SYMBOL = " ~  ";
-    private static final String DEFAULT_SYMBOL = "    ";
-    private static final String HORIZONTAL_BORDER_SYMBOL = "────";
-    private static final String NODE_SYMBOL = "┼";
+    static final String DEFAULT_SYMBOL = "    ";
+    static final String HORIZONTAL_BORDER_SYMBOL = "────";
+    static final String NODE_SYMBOL = "┼";
 
     public AbstractGraphMaze(int width, int height, boolean useWeighs) {
+        this(width, height, useWeighs, MazeRandom.fromConfiguration());
+    }
+
+    public AbstractGraphMaze(int width, int height, boolean useWeighs, MazeRandom random) {
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("Width and height must be positive.");
         }
         this.width = width;
         this.height = height;
-        if (useWeighs) {
-            initializeEdgesWithWeights(edges, height, width);  // Исправление здесь
-        } else {
-            initializeEdges(edges, height, width);  // Исправление здесь
-        }
+        this.grid = new WallGrid(width, height);
+        this.useWeighs = useWeighs;
+        this.random = random;
     }
 
     // Initialize all possible passages (without weights)
@@ -54,7 +62,7 @@ public abstract class AbstractGraphMaze implements Maze {
                 }
             }
         }
-        Collections.shuffle(edges);
+        Collections.shuffle(edges, random);
     }
 
     // Initialize all possible passages with weights
@@ -64,11 +72,11 @@ public abstract class AbstractGraphMaze implements Maze {
             for (int j = 0; j < width; j++) {  // Итерируемся по ширине
                 if (j < width - 1) {
                     edges.add(new Edge(new Cell(i, j), new Cell(i, j + 1),
-                        Utils.getRandomValue(possibleWeights)));  // Горизонтальные рёбра
+                        Utils.getRandomValue(possibleWeights, random)));  // Горизонтальные рёбра
                 }
                 if (i < height - 1) {
                     edges.add(new Edge(new Cell(i, j), new Cell(i + 1, j),
-                        Utils.getRandomValue(possibleWeights)));  // Вертикальные рёбра
+                        Utils.getRandomValue(possibleWeights, random)));  // Вертикальные рёбра
                 }
             }
         }
@@ -80,7 +88,64 @@ public abstract class AbstractGraphMaze implements Maze {
 
     // This method change the field, use it carefully!
     protected void addMazeEdge(Edge edge) {
-        mazeEdges.add(edge);
+        grid.open(edge);
+    }
+
+    // Puts back every wall of the maze, use it before generating the maze again
+    protected void clearMazeEdges() {
+        grid.closeAll();
+        for (MazeChangeListener listener : listeners) {
+            listener.mazeCleared();
+        }
+    }
+
+    // A passage of a weighted maze gets the weight of a plain one, the solvers count every step
+    public void openPassage(int row, int col, Direction direction) {
+        openPassage(row, col, direction, useWeighs ? DEFAULT_WEIGHT : 0);
+    }
+
+    /**
+     * Opens the passage from the cell in the given direction, or changes its weight if it is open,
+     * and tells the listeners. Nothing is reported if the passage already is like that.
+     * <p>Passages of a weighted maze weigh at least {@link #LOW_WEIGHT}: a free passage would make
+     * the Manhattan distance overestimate the remaining cost.</p>
+     */
+    public void openPassage(int row, int col, Direction direction, int weight) {
+        if (useWeighs && weight < LOW_WEIGHT) {
+            throw new IllegalArgumentException("Passages of a weighted maze must weigh at least "
+                + LOW_WEIGHT + ": " + weight);
+        }
+        changePassage(row, col, direction, true, weight);
+    }
+
+    /** Puts the wall in the given direction back and tells the listeners, if the passage was open. */
+    public void closePassage(int row, int col, Direction direction) {
+        changePassage(row, col, direction, false, 0);
+    }
+
+    private void changePassage(int row, int col, Direction direction, boolean open, int weight) {
+        boolean wasOpen = grid.isOpen(row, col, direction);
+        int previousWeight = grid.weight(row, col, direction);
+        if (open) {
+            grid.open(row, col, direction, weight);
+        } else {
+            grid.close(row, col, direction);
+        }
+        if (wasOpen != open || open && previousWeight != weight) {
+            PassageChange change = new PassageChange(grid.cellId(row, col), direction, wasOpen, previousWeight,
+                open, open ? weight : 0);
+            for (MazeChangeListener listener : listeners) {
+                listener.passageChanged(change);
+            }
+        }
+    }
+
+    public void addChangeListener(MazeChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(MazeChangeListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -93,35 +158,52 @@ public abstract class AbstractGraphMaze implements Maze {
             throw new IllegalStateException("Maze edges must be initialized.");
         }
 
+        WallGrid passages = new WallGrid(width, height);
+        for (Edge edge : mazeEdges) {
+            passages.open(edge);
+        }
+        return assembleMaze(passages);
+    }
+
+    /**
+     * Assembles the generated maze straight from its wall grid.
+     * <p>Before using it, you should first use generateMaze().</p>
+     */
+    public List<String> assembleMaze() {
+        return assembleMaze(grid);
+    }
+
+    private List<String> assembleMaze(WallGrid passages) {
         List<String> outputMaze = new ArrayList<>();
         StringBuilder topBorder = new StringBuilder();
-        for (int j = 0; j < width; j++) {
+        for (int j = 0; j < passages.width(); j++) {
             topBorder.append(NODE_SYMBOL).append(HORIZONTAL_BORDER_SYMBOL);
         }
         topBorder.append(NODE_SYMBOL);
         outputMaze.add(topBorder.toString());
 
-        for (int i = 0; i < height; i++) {
+        for (int i = 0; i < passages.height(); i++) {
             StringBuilder verticalWalls = new StringBuilder();
-            for (int j = 0; j < width; j++) {
+            for (int j = 0; j < passages.width(); j++) {
                 if (j == 0) {
                     verticalWalls.append("│");
                 }
-                if (hasEdge(i, j, i, j + 1, mazeEdges, height, width)) {
-                    verticalWalls.append(getCellSymbol(i, j, i, j + 1, mazeEdges)).append("|");
+                verticalWalls.append(getCellSymbol(i, j, passages));
+                if (passages.isOpen(i, j, Direction.EAST)) {
+                    verticalWalls.append(" ");
                 } else {
-                    verticalWalls.append(getCellSymbol(i, j, i, j + 1, mazeEdges)).append(" ");
+                    verticalWalls.append("|"); // Borders of maze always with edges
                 }
             }
             outputMaze.add(verticalWalls.toString());
 
             StringBuilder horizontalWalls = new StringBuilder();
-            for (int j = 0; j < width; j++) {
+            for (int j = 0; j < passages.width(); j++) {
                 horizontalWalls.append(NODE_SYMBOL);
-                if (hasEdge(i, j, i + 1, j, mazeEdges, height, width)) {
-                    horizontalWalls.append(HORIZONTAL_BORDER_SYMBOL);
-                } else {
+                if (passages.isOpen(i, j, Direction.SOUTH)) {
                     horizontalWalls.append(DEFAULT_SYMBOL);
+                } else {
+                    horizontalWalls.append(HORIZONTAL_BORDER_SYMBOL);
                 }
             }
             horizontalWalls.append(NODE_SYMBOL);
@@ -130,52 +212,48 @@ public abstract class AbstractGraphMaze implements Maze {
         return outputMaze;
     }
 
-    private String getCellSymbol(int row1, int col1, int row2, int col2, List<Edge> mazeEdges) {
-        String symbol = DEFAULT_SYMBOL;
-        for (Edge edge : mazeEdges) {
-            if (edge.cell1().row() == row1 && edge.cell1().col() == col1
-                && edge.cell2().row() == row2 && edge.cell2().col() == col2
-                || edge.cell1().row() == row2 && edge.cell1().col() == col2
-                && edge.cell2().row() == row1 && edge.cell2().col() == col1) {
-                switch (edge.weight()) {
-                    case LOW_WEIGHT:
-                        symbol = LOW_WEIGHT_SYMBOL;
-                        break;
-                    case HIGH_WEIGHT:
-                        symbol = HIGH_WEIGHT_SYMBOL;
-                        break;
-                    default:
-                        return DEFAULT_SYMBOL;
-                }
-            }
-        }
-        return symbol;
-    }
-
-    private boolean hasEdge(int row1, int col1, int row2, int col2, List<Edge> mazeEdges, int height, int width) {
-        if (row2 >= height || col2 >= width) {
-            return true; // Borders of maze always with edges
+    // The cell shows the weight of the passage to its east neighbour
+    private String getCellSymbol(int row, int col, WallGrid passages) {
+        if (!passages.isOpen(row, col, Direction.EAST)) {
+            return DEFAULT_SYMBOL;
         }
-        return checkEdgeInMazeEdges(mazeEdges, row1, col1, row2, col2);
+        return switch (passages.weight(row, col, Direction.EAST)) {
+            case LOW_WEIGHT -> LOW_WEIGHT_SYMBOL;
+            case HIGH_WEIGHT -> HIGH_WEIGHT_SYMBOL;
+            default -> DEFAULT_SYMBOL;
+        };
     }
 
-    // Verify of existence edge between two cells
-    private boolean checkEdgeInMazeEdges(List<Edge> mazeEdges, int row1, int col1, int row2, int col2) {
-        for (Edge edge : mazeEdges) {
-            if (edge.cell1().col() == col1 && edge.cell1().row() == row1
-                && edge.cell2().col() == col2 && edge.cell2().row() == row2) {
-                return false; // Edge is missing, so there is passage
+    /**
+     * Returns a new modifiable list of all possible passages of the maze.
+     * The list is materialised on the first call only, generators that work on the grid never pay for it.
+     */
+    public List<Edge> edges() {
+        if (edges == null) {
+            edges = new ArrayList<>();
+            if (useWeighs) {
+                initializeEdgesWithWeights(edges, height, width);
+            } else {
+                initializeEdges(edges, height, width);
             }
         }
-        return true;
-    }
-
-    public List<Edge> edges() {
         return new ArrayList<>(edges);
     }
 
+    /**
+     * Returns a new modifiable list of the passages of the maze.
+     * <p>Solvers should use graph() instead - it does not copy anything.</p>
+     */
     public List<Edge> mazeEdges() {
-        return new ArrayList<>(mazeEdges);
+        return grid.passages();
+    }
+
+    /**
+     * Returns the frozen snapshot of the maze produced by the last generateMaze().
+     * The snapshot is immutable, so it can be shared between solvers and threads.
+     */
+    public MazeGraph graph() {
+        return grid.freeze();
     }
 
     /** The method for displaying the maze in the console.
@@ -1,37 +1,45 @@
 package backend.academy;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import static backend.academy.Utils.OUT;
 
 /**
  * BFS class implements the Breadth-First Search (BFS) algorithm for finding a path
  * through a maze. This class tracks visited cells and can print the maze with the
  * path highlighted.
+ * <p>The search itself is done by a {@link BfsEngine}, which is kept between calls,
+ * so repeated queries on the same maze do not pay for clearing any state.</p>
+ * <p>With a {@link PathCache} a query that was answered before on an equal maze is taken from
+ * the cache; {@link #visited()} then still shows the cells of the last search that really ran.</p>
  * <p>This algorithm is designed for non-weighted graphs.</p>
  */
 public class BFS implements MazePathFinder {
     private final AbstractGraphMaze maze;
-    private final int[][] parents; // To store parent cells for path reconstruction
-    private final boolean[][] visited; // To track visited cells
+    private final PathCache cache;  // May be null
+    private BfsEngine engine; // Built for the current snapshot of the maze
+    private int[] cells;      // Path buffer of the engine, used only with a cache
     private final List<Cell> path;
     private static final int CELL_WIDTH = 5;  // Width of each cell in the string representation
 
     public BFS(AbstractGraphMaze maze) {
+        this(maze, null);
+    }
+
+    public BFS(AbstractGraphMaze maze, PathCache cache) {
         this.maze = maze;
-        this.parents = new int[maze.width()][maze.height()];
-        this.visited = new boolean[maze.width()][maze.height()];
+        this.cache = cache;
         this.path = new ArrayList<>();
     }
 
-    private void initializeParents() {
-        for (int i = 0; i < parents.length; i++) {
-            Arrays.fill(parents[i], -1); // Initialize each row with -1
+    // The maze may have been generated again since the last query
+    private BfsEngine engine() {
+        MazeGraph graph = maze.graph();
+        if (engine == null || engine.graph() != graph) {
+            engine = new BfsEngine(graph);
         }
+        return engine;
     }
 
     /**
@@ -41,37 +49,24 @@ public class BFS implements MazePathFinder {
     @Override
     public void findPath(int startX, int startY, int endX, int endY) {
         try {
-            Queue<Cell> queue = new LinkedList<>();
-            queue.add(new Cell(startX, startY)); // Start from the top-left corner
-            initializeParents(); // Initialize parent relationships
-
-            while (!queue.isEmpty()) {
-                Cell current = queue.poll();
-
-                if (current.col() == endX && current.row() == endY) {
-                    break;
-                }
-
-                // Check neighboring cells
-                for (Edge edge : maze.mazeEdges()) {
-                    Cell neighbor = null;
-                    if (edge.cell1().equals(current)) {
-                        neighbor = edge.cell2();
-                    } else if (edge.cell2().equals(current)) {
-                        neighbor = edge.cell1();
-                    }
-
-                    // Visit neighbor if it hasn't been visited yet
-                    if (neighbor != null && !visited[neighbor.col()][neighbor.row()]) {
-                        visited[neighbor.col()][neighbor.row()] = true;
-                        queue.add(neighbor);
-                        // Store the parent of the neighbor for path reconstruction
-                        parents[neighbor.col()][neighbor.row()] = current.row() * maze.width() + current.col();
-                    }
+            path.clear();
+            BfsEngine bfs = engine();
+            MazeGraph graph = bfs.graph();
+            int goal = graph.cellId(endX, endY);
+            if (cache != null) {
+                cache.get(graph, PathCache.Solver.BFS, graph.cellId(startX, startY), goal, key -> search(bfs, key))
+                    .ifPresent(found -> {
+                        for (int cell : found.decode(graph.width())) {
+                            path.add(Cell.ofId(cell, graph.width()));
+                        }
+                    });
+            } else if (bfs.search(graph.cellId(startX, startY), goal)) {
+                // Walk the parents back from the goal, then reverse to get the path from start to end
+                for (int cell = goal; cell != BfsEngine.NO_PARENT; cell = bfs.parent(cell)) {
+                    path.add(Cell.ofId(cell, graph.width()));
                 }
+                Collections.reverse(path);
             }
-            List<Cell> startEndPath = getCells(startX, startY, endX, endY);
-            Collections.reverse(startEndPath); // Reverse to get the path from start to end
         } catch (ArrayIndexOutOfBoundsException e) {
             OUT.println("Error: Attempted to access an invalid index in the maze: " + e.getMessage());
         } catch (Exception e) {
@@ -79,6 +74,16 @@ public class BFS implements MazePathFinder {
         }
     }
 
+    private EncodedPath search(BfsEngine bfs, PathCache.Key key) {
+        if (!bfs.search(key.start(), key.goal())) {
+            return null;
+        }
+        if (cells == null || cells.length != bfs.graph().cellCount()) {
+            cells = new int[bfs.graph().cellCount()];
+        }
+        return EncodedPath.of(cells, bfs.path(key.goal(), cells), bfs.graph().width());
+    }
+
     /**
      * Assembles the output maze with the path marked.
      *
@@ -97,34 +102,19 @@ public class BFS implements MazePathFinder {
         return outputMaze;
     }
 
-    private List<Cell> getCells(int startX, int startY, int endX, int endY) {
-        int currentRow = endX; // Start from the bottom-right corner
-        int currentCol = endY;
-
-        // Reconstruct the path from end to start
-        while (currentRow != startX || currentCol != startY) {
-            path.add(new Cell(currentRow, currentCol));
-            int parentIndex = parents[currentCol][currentRow];
-            if (parentIndex == -1) {
-                break;
-            } // Exit if there is no parent
-            currentRow = parentIndex / maze.width();
-            currentCol = parentIndex % maze.width();
-        }
-        path.add(new Cell(startX, startY)); // Add the starting cell
-        return path;
-    }
-
     /**
      * Retrieves a copy of the visited cells array.
      *
      * @return A boolean array representing visited cells.
      */
     public boolean[][] visited() {
-        boolean[][] visitedCopy = new boolean[maze.width()][maze.height()];
+        boolean[][] visitedCopy = new boolean[maze.height()][maze.width()];
+        if (engine == null) {
+            return visitedCopy;
+        }
         for (int row = 0; row < maze.height(); row++) {
             for (int col = 0; col < maze.width(); col++) {
-                visitedCopy[row][col] = visited[col][row];
+                visitedCopy[row][col] = engine.isVisited(engine.graph().cellId(row, col));
             }
         }
         return visitedCopy;
@@ -0,0 +1,126 @@
+package backend.academy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Answers many path queries over one maze snapshot in parallel.
+ * <p>The queries are given as one int array of pairs {@code start0, goal0, start1, goal1, ...}
+ * (cell ids) and are split between the workers of a {@link ForkJoinPool}. The maze is
+ * shared; every chunk of queries borrows a solver and a path buffer from a queue kept for the
+ * call and gives them back when it is done, so a thread never shares them and there are never
+ * more of them than chunks running at once. They are dropped when the call returns.</p>
+ * <p>Unweighted mazes are solved with {@link BidirectionalBfsEngine} and the length of a path
+ * is its number of passages. Weighted mazes are solved with {@link DialSolver} and the length
+ * is the cost of the cheapest path. The lives rule of the game is not applied.</p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BatchPathQueries {
+    public static final int NO_PATH = -1;
+    private static final int CHUNKS_PER_WORKER = 4;  // Spare chunks to balance long and short queries
+
+    /**
+     * Lengths of the paths by query, {@link #NO_PATH} where the goal is unreachable,
+     * and the paths themselves if they were requested (null otherwise, and for unreachable goals).
+     */
+    public record Result(int[] lengths, EncodedPath[] paths) {
+    }
+
+    public static Result solve(MazeGraph graph, int[] pairs, boolean encodePaths) {
+        return solve(graph, pairs, encodePaths, ForkJoinPool.commonPool());
+    }
+
+    public static Result solve(MazeGraph graph, int[] pairs, boolean encodePaths, ForkJoinPool pool) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Queries must be given as pairs of cells: " + pairs.length);
+        }
+        for (int cell : pairs) {
+            if (cell < 0 || cell >= graph.cellCount()) {
+                throw new IllegalArgumentException("Cell " + cell + " is outside the maze.");
+            }
+        }
+        int queries = pairs.length / 2;
+        Result result = new Result(new int[queries], encodePaths ? new EncodedPath[queries] : null);
+        if (queries > 0) {
+            int chunkSize = Math.max(1, queries / (pool.getParallelism() * CHUNKS_PER_WORKER));
+            pool.invoke(new Chunk(graph, pairs, result, new ConcurrentLinkedQueue<>(), 0, queries, chunkSize));
+        }
+        return result;
+    }
+
+    // Solver and path buffer of one chunk; only the solver the maze needs is created
+    private static final class Scratch {
+        private final DialSolver dial;
+        private final BidirectionalBfsEngine bfs;
+        private final int[] path;  // Null if paths are not encoded
+
+        Scratch(MazeGraph graph, boolean encodePaths) {
+            this.dial = graph.weighted() ? new DialSolver(graph) : null;
+            this.bfs = graph.weighted() ? null : new BidirectionalBfsEngine(graph);
+            this.path = encodePaths ? new int[graph.cellCount()] : null;
+        }
+    }
+
+    // Solves the queries [from, to), halving the range until it is one chunk
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveAction {
+        private final MazeGraph graph;
+        private final int[] pairs;
+        private final Result result;
+        private final Queue<Scratch> idle;  // Scratch given back by the chunks that are done
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        Chunk(MazeGraph graph, int[] pairs, Result result, Queue<Scratch> idle, int from, int to, int chunkSize) {
+            this.graph = graph;
+            this.pairs = pairs;
+            this.result = result;
+            this.idle = idle;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Chunk(graph, pairs, result, idle, from, middle, chunkSize),
+                    new Chunk(graph, pairs, result, idle, middle, to, chunkSize));
+                return;
+            }
+            Scratch scratch = idle.poll();
+            if (scratch == null) {
+                scratch = new Scratch(graph, result.paths() != null);
+            }
+            int[] path = scratch.path;
+            if (scratch.dial != null) {
+                DialSolver solver = scratch.dial;
+                for (int query = from; query < to; query++) {
+                    int goal = pairs[2 * query + 1];
+                    int cost = solver.aStar(pairs[2 * query], goal);
+                    store(query, cost, path == null ? 0 : solver.path(goal, path), path);
+                }
+            } else {
+                BidirectionalBfsEngine solver = scratch.bfs;
+                for (int query = from; query < to; query++) {
+                    solver.search(pairs[2 * query], pairs[2 * query + 1]);
+                    store(query, solver.distance(), path == null ? 0 : solver.path(path), path);
+                }
+            }
+            idle.offer(scratch);
+        }
+
+        private void store(int query, int length, int cells, int[] path) {
+            result.lengths()[query] = length;
+            if (path != null && length != NO_PATH) {
+                result.paths()[query] = EncodedPath.of(path, cells, graph.width());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * BfsEngine runs breadth-first searches over one {@link MazeGraph} and keeps its state
+ * between queries, so a query costs only the cells it actually reaches.
+ * <p>Visited cells are marked with the number of the query (an epoch stamp) instead of
+ * a flag, so nothing has to be cleared before the next query. Parents live in one flat
+ * array indexed by cell id and are valid only for cells stamped by the last query.
+ * The queue is a ring buffer that grows with the frontier, not with the maze.</p>
+ * <p>An engine is not thread-safe; create one per thread, the graph can be shared.</p>
+ */
+public final class BfsEngine {
+    public static final int NO_PARENT = -1;
+
+    private final @Getter MazeGraph graph;
+    private final int[] stamps;
+    private final int[] parents;
+    private final int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+    private final IntRingQueue queue = new IntRingQueue();
+    private int epoch;
+
+    public BfsEngine(MazeGraph graph) {
+        this.graph = graph;
+        this.stamps = new int[graph.cellCount()];
+        this.parents = new int[graph.cellCount()];
+    }
+
+    /**
+     * Searches from the start cell until the goal is reached or every reachable cell is visited.
+     *
+     * @return true if the goal is reachable
+     */
+    public boolean search(int startCell, int goalCell) {
+        nextEpoch();
+        stamps[startCell] = epoch;
+        parents[startCell] = NO_PARENT;
+        if (startCell == goalCell) {
+            return true;
+        }
+
+        queue.clear();
+        queue.add(startCell);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+
+            int count = graph.neighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (stamps[neighbor] == epoch) {
+                    continue;
+                }
+                stamps[neighbor] = epoch;
+                parents[neighbor] = current;
+                if (neighbor == goalCell) {
+                    return true; // Stop as soon as the goal is discovered
+                }
+                queue.add(neighbor);
+            }
+        }
+        return false;
+    }
+
+    /** Returns true if the last search reached the cell. */
+    public boolean isVisited(int cellId) {
+        return epoch != 0 && stamps[cellId] == epoch;
+    }
+
+    /** Returns the cell the last search came from, or {@link #NO_PARENT} for the start or an unvisited cell. */
+    public int parent(int cellId) {
+        return isVisited(cellId) ? parents[cellId] : NO_PARENT;
+    }
+
+    /**
+     * Writes the path found by the last search, from its start to the given cell, into the buffer.
+     *
+     * @param buffer array with room for the whole path, {@link MazeGraph#cellCount()} is always enough
+     * @return the number of cells written, or 0 if the last search did not reach the cell
+     */
+    public int path(int goalCell, int[] buffer) {
+        if (!isVisited(goalCell)) {
+            return 0;
+        }
+        int length = 0;
+        for (int cell = goalCell; cell != NO_PARENT; cell = parents[cell]) {
+            buffer[length++] = cell;
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int cell = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = cell;
+        }
+        return length;
+    }
+
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0); // Once in two billion queries
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
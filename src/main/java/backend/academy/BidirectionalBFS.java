@@ -0,0 +1,98 @@
+package backend.academy;
+
+import java.util.ArrayList;
+import java.util.List;
+import static backend.academy.Utils.OUT;
+
+/**
+ * BidirectionalBFS finds a shortest path through a maze by searching from both ends
+ * at once (see {@link BidirectionalBfsEngine}). It gives the same path length as {@link BFS},
+ * but expands far fewer cells on long queries, such as corner to corner.
+ * <p>This algorithm is designed for non-weighted graphs.</p>
+ */
+public class BidirectionalBFS implements MazePathFinder {
+    private final AbstractGraphMaze maze;
+    private BidirectionalBfsEngine engine; // Built for the current snapshot of the maze
+    private int[] cells;                    // Path buffer of the engine, reused between queries
+    private final List<Cell> path;
+    private static final int CELL_WIDTH = 5;  // Width of each cell in the string representation
+
+    public BidirectionalBFS(AbstractGraphMaze maze) {
+        this.maze = maze;
+        this.path = new ArrayList<>();
+    }
+
+    // The maze may have been generated again since the last query
+    private BidirectionalBfsEngine engine() {
+        MazeGraph graph = maze.graph();
+        if (engine == null || engine.graph() != graph) {
+            engine = new BidirectionalBfsEngine(graph);
+            cells = new int[graph.cellCount()];
+        }
+        return engine;
+    }
+
+    /**
+     * Finds a shortest path from the start cell to the goal cell.
+     */
+    @Override
+    public void findPath(int startX, int startY, int endX, int endY) {
+        try {
+            path.clear();
+            BidirectionalBfsEngine bfs = engine();
+            MazeGraph graph = bfs.graph();
+            if (bfs.search(graph.cellId(startX, startY), graph.cellId(endX, endY))) {
+                int length = bfs.path(cells);
+                for (int i = 0; i < length; i++) {
+                    path.add(Cell.ofId(cells[i], graph.width()));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            OUT.println("Error: Attempted to access an invalid index in the maze: " + e.getMessage());
+        } catch (Exception e) {
+            OUT.println("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /** Returns a copy of the last found path, from start to goal; empty if there is none. */
+    public List<Cell> path() {
+        return new ArrayList<>(path);
+    }
+
+    /** Returns the number of cells the last search expanded. */
+    public int expandedCells() {
+        return engine == null ? 0 : engine.expandedCount();
+    }
+
+    /**
+     * Assembles the output maze with the path marked.
+     *
+     * @param outputMaze A list of strings representing the maze to be modified.
+     * @return The modified maze with the path marked.
+     */
+    public List<String> assemblePath(List<String> outputMaze) {
+        for (Cell cell : path) {
+            int rowIndex = cell.row() * 2 + 1; // Index in outputMaze
+            StringBuilder row = new StringBuilder(outputMaze.get(rowIndex));
+            int colIndex = cell.col() * CELL_WIDTH + 2; // Position in the row (considering boundaries)
+            row.setCharAt(colIndex, '•'); // Mark the path with the symbol "•"
+            outputMaze.set(rowIndex, row.toString());
+        }
+        return outputMaze;
+    }
+
+    /**
+     * Prints the maze to the console, including the path.
+     * <p>Before using it, you should first use findPath().</p>
+     *
+     * @param outputMaze A list of strings representing the maze to be printed.
+     */
+    @Override
+    public void printPath(List<String> outputMaze) {
+        List<String> mazeElements = assemblePath(outputMaze);
+        for (String element : mazeElements) {
+            OUT.println(element);
+        }
+        OUT.println();
+    }
+}
@@ -0,0 +1,155 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * BidirectionalBfsEngine finds shortest paths in unweighted mazes by growing two
+ * breadth-first frontiers, one from the start and one from the goal, until they meet.
+ * <p>Every step expands one whole level of the smaller frontier. When a level touches
+ * cells of the other side, the best meeting of that level is kept and the search stops,
+ * so the path is as short as a plain BFS would find. In a maze of long corridors both
+ * frontiers stay small and far fewer cells are expanded than from one side only.</p>
+ * <p>Like {@link BfsEngine} the state of both sides is epoch-stamped and reused between
+ * queries. An engine is not thread-safe; create one per thread, the graph can be shared.</p>
+ */
+public final class BidirectionalBfsEngine {
+    public static final int NO_CELL = -1;
+
+    private final @Getter MazeGraph graph;
+    private final Side forward;
+    private final Side backward;
+    private final int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+    private int epoch;
+    private int meetForward = NO_CELL;   // Last cell of the path reached from the start
+    private int meetBackward = NO_CELL;  // First cell of the path reached from the goal
+    private int bestLength;
+    private @Getter int expandedCount;   // Cells taken from the queues by the last search
+
+    public BidirectionalBfsEngine(MazeGraph graph) {
+        this.graph = graph;
+        this.forward = new Side(graph.cellCount());
+        this.backward = new Side(graph.cellCount());
+    }
+
+    /**
+     * Searches for a shortest path between the cells.
+     *
+     * @return true if the goal is reachable
+     */
+    public boolean search(int startCell, int goalCell) {
+        nextEpoch();
+        expandedCount = 0;
+        bestLength = Integer.MAX_VALUE;
+        meetForward = NO_CELL;
+        meetBackward = NO_CELL;
+        forward.start(startCell, epoch);
+        backward.start(goalCell, epoch);
+        if (startCell == goalCell) {
+            meetForward = startCell;
+            meetBackward = startCell;
+            bestLength = 0;
+            return true;
+        }
+
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+            if (forward.queue.size() <= backward.queue.size()) {
+                expandLevel(forward, backward);
+            } else {
+                expandLevel(backward, forward);
+            }
+            if (bestLength != Integer.MAX_VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expandLevel(Side side, Side other) {
+        for (int levelSize = side.queue.size(); levelSize > 0; levelSize--) {
+            int current = side.queue.poll();
+            expandedCount++;
+            int count = graph.neighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (other.stamps[neighbor] == epoch) {
+                    int length = side.distances[current] + 1 + other.distances[neighbor];
+                    if (length < bestLength) {
+                        bestLength = length;
+                        meetForward = side == forward ? current : neighbor;
+                        meetBackward = side == forward ? neighbor : current;
+                    }
+                }
+                if (side.stamps[neighbor] != epoch) {
+                    side.stamps[neighbor] = epoch;
+                    side.parents[neighbor] = current;
+                    side.distances[neighbor] = side.distances[current] + 1;
+                    side.queue.add(neighbor);
+                }
+            }
+        }
+    }
+
+    /** Returns the number of passages on the path found by the last search, or -1 if there is none. */
+    public int distance() {
+        return meetForward == NO_CELL ? -1 : bestLength;
+    }
+
+    /**
+     * Writes the path found by the last search, from its start to its goal, into the buffer.
+     *
+     * @param buffer array with room for the whole path, {@link MazeGraph#cellCount()} is always enough
+     * @return the number of cells written, or 0 if the last search did not reach the goal
+     */
+    public int path(int[] buffer) {
+        if (meetForward == NO_CELL) {
+            return 0;
+        }
+        int length = 0;
+        for (int cell = meetForward; cell != NO_CELL; cell = forward.parents[cell]) {
+            buffer[length++] = cell;
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int cell = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = cell;
+        }
+        if (meetBackward != meetForward) {
+            for (int cell = meetBackward; cell != NO_CELL; cell = backward.parents[cell]) {
+                buffer[length++] = cell;
+            }
+        }
+        return length;
+    }
+
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forward.stamps, 0); // Once in two billion queries
+            Arrays.fill(backward.stamps, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+
+    // The search state of one direction
+    private static final class Side {
+        private final int[] stamps;
+        private final int[] parents;
+        private final int[] distances;
+        private final IntRingQueue queue = new IntRingQueue();
+
+        Side(int cellCount) {
+            this.stamps = new int[cellCount];
+            this.parents = new int[cellCount];
+            this.distances = new int[cellCount];
+        }
+
+        void start(int cell, int epoch) {
+            queue.clear();
+            queue.add(cell);
+            stamps[cell] = epoch;
+            parents[cell] = NO_CELL;
+            distances[cell] = 0;
+        }
+    }
+}
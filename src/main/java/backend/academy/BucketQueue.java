@@ -0,0 +1,72 @@
+package backend.academy;
+
+import java.util.Arrays;
+
+/**
+ * A monotone priority queue of ints with small integer keys (Dial's bucket queue).
+ * It keeps one bucket per key in a circular array; push and pop are O(1).
+ * <p>Keys must never be smaller than the key of the last popped element, and never more
+ * than {@code span - 1} larger than it. This holds for Dijkstra with edge costs up to
+ * {@code span - 1}, and for A* with a consistent heuristic when {@code span} also covers
+ * the largest growth of the heuristic along one edge.</p>
+ * <p>Elements are never removed early; the caller skips stale entries when it pops them.
+ * Within a bucket the last pushed element is popped first.</p>
+ */
+final class BucketQueue {
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    private final int mask;
+    private final int[][] buckets;
+    private final int[] sizes;
+    private int currentKey;
+    private int size;
+
+    BucketQueue(int span) {
+        int bucketCount = Integer.highestOneBit(Math.max(span, 1) * 2 - 1);  // Next power of two
+        this.mask = bucketCount - 1;
+        this.buckets = new int[bucketCount][INITIAL_BUCKET_CAPACITY];
+        this.sizes = new int[bucketCount];
+    }
+
+    /** Empties the queue and sets the smallest key that may be pushed next. */
+    void reset(int startKey) {
+        Arrays.fill(sizes, 0);
+        currentKey = startKey;
+        size = 0;
+    }
+
+    void push(int value, int key) {
+        if (key < currentKey || key > currentKey + mask) {
+            throw new IllegalArgumentException("Key " + key + " is outside the window starting at " + currentKey);
+        }
+        int bucket = key & mask;
+        int[] values = buckets[bucket];
+        if (sizes[bucket] == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+            buckets[bucket] = values;
+        }
+        values[sizes[bucket]++] = value;
+        size++;
+    }
+
+    /** Removes an element with the smallest key; the key is available from currentKey() afterwards. */
+    int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty.");
+        }
+        while (sizes[currentKey & mask] == 0) {
+            currentKey++;
+        }
+        size--;
+        int bucket = currentKey & mask;
+        return buckets[bucket][--sizes[bucket]];
+    }
+
+    int currentKey() {
+        return currentKey;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -6,5 +6,14 @@ public record Cell(int row, int col) {
             throw new IllegalArgumentException("Row and Column must be non-negative");
         }
     }
-}
 
+    // Creates the cell from its primitive id (row * width + col)
+    public static Cell ofId(int cellId, int width) {
+        return new Cell(cellId / width, cellId % width);
+    }
+
+    // Primitive id of the cell in a maze of the given width
+    public int id(int width) {
+        return row * width + col;
+    }
+}
@@ -0,0 +1,293 @@
+package backend.academy;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lombok.Getter;
+
+/**
+ * ClusterGraph is the abstract graph of hierarchical path-finding (HPA*). The maze is cut into
+ * square clusters; every cell with an open passage into another cluster is an entrance, and the
+ * cheapest paths between the entrances of a cluster, staying inside it, are measured once.
+ * {@link ClusterSolver} then searches the entrances only and refines the clusters on its route.
+ * <p>In a maze almost every run of open passages across a cluster border is one passage long,
+ * so every crossing passage gets its own pair of entrances instead of one per run. The abstract
+ * graph then keeps every path of the maze, and its costs are exact, not approximate.</p>
+ * <p>Costs are {@code max(weight, 1)} per passage, like in {@link DialSolver}. Entrances are
+ * nodes {@code 0..nodeCount()-1}, numbered cluster by cluster in the order of their cells.
+ * A cluster keeps an edge only between entrances that are connected inside it; in a maze most
+ * are not, so the edges are stored per entrance rather than as a distance matrix.</p>
+ * <p>The clusters are measured in parallel on a {@link ForkJoinPool}. The graph reads the wall
+ * grid of the maze directly, like {@link DStarLite}, so a change costs no snapshot of the whole
+ * maze: built for a maze, it listens to the changes; built for a bare grid, the caller reports
+ * them with {@link #update(int, Direction)}. Either way only the cluster of the passage, or the
+ * two clusters it connects, is measured again. Queries may run in parallel, each with its own
+ * solver, but not during a change; a regenerated maze needs a new graph.</p>
+ */
+public final class ClusterGraph implements MazeChangeListener {
+    public static final int DEFAULT_CLUSTER_SIZE = 64;
+    private static final int CLUSTERS_PER_TASK = 16;  // Clusters measured by one task without forking further
+
+    private final @Getter int clusterSize;
+    private final int clusterCols;
+    private final int[][] entrances;  // Entrance cells of every cluster, in increasing order
+    // Edges between the entrances of every cluster; those of entrance i are [offsets[i], offsets[i + 1])
+    private final int[][] edgeOffsets;
+    private final int[][] edgeTargets;  // Index of the other entrance
+    private final int[][] edgeCosts;
+    private int[] nodeOffsets;        // Nodes of cluster c are [nodeOffsets[c], nodeOffsets[c + 1])
+    private final AbstractGraphMaze maze;  // The maze followed, or null for a bare grid
+    private final WallGrid grid;
+    private final @Getter long buildNanos;
+    private @Getter int updatedClusters;  // Clusters measured again by the last update
+    private boolean cleared;              // The maze was generated again, the clusters are stale
+
+    public ClusterGraph(AbstractGraphMaze maze) {
+        this(maze, DEFAULT_CLUSTER_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /** Builds the graph for the maze and follows its changes until {@link #detach()}. */
+    public ClusterGraph(AbstractGraphMaze maze, int clusterSize, ForkJoinPool pool) {
+        this(maze, maze.grid(), clusterSize, pool);
+        maze.addChangeListener(this);
+    }
+
+    /** Builds the graph for a grid whose changes the caller reports with {@link #update(int, Direction)}. */
+    public ClusterGraph(WallGrid grid, int clusterSize, ForkJoinPool pool) {
+        this(null, grid, clusterSize, pool);
+    }
+
+    private ClusterGraph(AbstractGraphMaze maze, WallGrid grid, int clusterSize, ForkJoinPool pool) {
+        if (clusterSize <= 0) {
+            throw new IllegalArgumentException("Cluster size must be positive: " + clusterSize);
+        }
+        long started = System.nanoTime();
+        this.maze = maze;
+        this.grid = grid;
+        this.clusterSize = clusterSize;
+        int clusterRows = (grid.height() + clusterSize - 1) / clusterSize;
+        this.clusterCols = (grid.width() + clusterSize - 1) / clusterSize;
+        this.entrances = new int[clusterRows * clusterCols][];
+        this.edgeOffsets = new int[entrances.length][];
+        this.edgeTargets = new int[entrances.length][];
+        this.edgeCosts = new int[entrances.length][];
+        pool.invoke(new MeasureClusters(0, entrances.length));
+        countNodes();
+        this.buildNanos = System.nanoTime() - started;
+    }
+
+    /** Stops following the changes of the maze. */
+    public void detach() {
+        if (maze != null) {
+            maze.removeChangeListener(this);
+        }
+    }
+
+    @Override
+    public void passageChanged(PassageChange change) {
+        if (!cleared) {
+            update(change.cellId(), change.direction());
+        }
+    }
+
+    @Override
+    public void mazeCleared() {
+        cleared = true;
+    }
+
+    /** Measures again the clusters touched by the passage from the cell in the given direction, after it changed. */
+    public void update(int cellId, Direction direction) {
+        if (cellId < 0 || cellId >= grid.cellCount()) {
+            throw new IllegalArgumentException("Cell " + cellId + " is outside the maze.");
+        }
+        ClusterSearch search = new ClusterSearch(maxClusterCells());
+        int cluster = clusterOf(cellId);
+        measure(cluster, search);
+        updatedClusters = 1;
+        int row = grid.row(cellId) + direction.rowOffset();
+        int col = grid.col(cellId) + direction.colOffset();
+        if (row >= 0 && row < grid.height() && col >= 0 && col < grid.width()) {
+            int other = clusterOf(grid.cellId(row, col));
+            if (other != cluster) {
+                measure(other, search);
+                updatedClusters++;
+            }
+        }
+        countNodes();
+    }
+
+    // Finds the entrances of the cluster and the distances between them
+    private void measure(int cluster, ClusterSearch search) {
+        int top = clusterTop(cluster);
+        int left = clusterLeft(cluster);
+        int bottom = top + clusterHeight(cluster) - 1;
+        int right = left + clusterWidth(cluster) - 1;
+        IntList found = new IntList();
+        for (int row = top; row <= bottom; row++) {
+            boolean edge = row == top || row == bottom;
+            for (int col = left; col <= right; col += edge || right == left ? 1 : right - left) {
+                int cell = grid.cellId(row, col);
+                if (row == top && grid.isOpen(cell, Direction.NORTH)
+                    || row == bottom && grid.isOpen(cell, Direction.SOUTH)
+                    || col == left && grid.isOpen(cell, Direction.WEST)
+                    || col == right && grid.isOpen(cell, Direction.EAST)) {
+                    found.add(cell);
+                }
+            }
+        }
+        int[] cells = found.toArray();
+        int[] offsets = new int[cells.length + 1];
+        IntList targets = new IntList();
+        IntList costs = new IntList();
+        for (int i = 0; i < cells.length; i++) {
+            search.run(this, cluster, cells[i], -1);
+            for (int j = 0; j < cells.length; j++) {
+                int cost = search.cost(cells[j]);
+                if (j != i && cost != ClusterSearch.UNREACHED) {
+                    targets.add(j);
+                    costs.add(cost);
+                }
+            }
+            offsets[i + 1] = targets.size();
+        }
+        entrances[cluster] = cells;
+        edgeOffsets[cluster] = offsets;
+        edgeTargets[cluster] = targets.toArray();
+        edgeCosts[cluster] = costs.toArray();
+    }
+
+    private void countNodes() {
+        int[] offsets = new int[entrances.length + 1];
+        for (int cluster = 0; cluster < entrances.length; cluster++) {
+            offsets[cluster + 1] = offsets[cluster] + entrances[cluster].length;
+        }
+        nodeOffsets = offsets;
+    }
+
+    // The grid the clusters are measured on, for the searches
+    WallGrid grid() {
+        return grid;
+    }
+
+    void requireCurrent() {
+        if (cleared) {
+            throw new IllegalStateException("The maze was generated again, build a new cluster graph.");
+        }
+    }
+
+    public int clusterCount() {
+        return entrances.length;
+    }
+
+    public int clusterOf(int cellId) {
+        return grid.row(cellId) / clusterSize * clusterCols + grid.col(cellId) / clusterSize;
+    }
+
+    int clusterTop(int cluster) {
+        return cluster / clusterCols * clusterSize;
+    }
+
+    int clusterLeft(int cluster) {
+        return cluster % clusterCols * clusterSize;
+    }
+
+    int clusterHeight(int cluster) {
+        return Math.min(clusterSize, grid.height() - clusterTop(cluster));
+    }
+
+    int clusterWidth(int cluster) {
+        return Math.min(clusterSize, grid.width() - clusterLeft(cluster));
+    }
+
+    // Cells of the largest cluster, the size a ClusterSearch needs
+    int maxClusterCells() {
+        return Math.min(clusterSize, grid.height()) * Math.min(clusterSize, grid.width());
+    }
+
+    /** Total number of entrances, the nodes of the abstract graph. */
+    public int nodeCount() {
+        return nodeOffsets[entrances.length];
+    }
+
+    /** Returns the node of the first entrance of the cluster; the entrances of a cluster are consecutive. */
+    public int nodeOffset(int cluster) {
+        return nodeOffsets[cluster];
+    }
+
+    /** Returns the cluster that holds the node. */
+    public int clusterOfNode(int node) {
+        int found = Arrays.binarySearch(nodeOffsets, node);
+        if (found < 0) {
+            return -found - 2;
+        }
+        // Clusters without entrances share their offset with the next one
+        while (nodeOffsets[found + 1] == node) {
+            found++;
+        }
+        return found;
+    }
+
+    public int entranceCount(int cluster) {
+        return entrances[cluster].length;
+    }
+
+    public int entranceCell(int cluster, int entrance) {
+        return entrances[cluster][entrance];
+    }
+
+    /** Returns the index of the cell among the entrances of its cluster, or -1 if it is not one. */
+    public int entranceOf(int cellId) {
+        int found = Arrays.binarySearch(entrances[clusterOf(cellId)], cellId);
+        return found < 0 ? -1 : found;
+    }
+
+    /** Returns the first edge of the entrance; its edges end where those of the next entrance start. */
+    public int edgeOffset(int cluster, int entrance) {
+        return edgeOffsets[cluster][entrance];
+    }
+
+    /** Returns the index of the entrance the edge leads to, in the same cluster. */
+    public int edgeTarget(int cluster, int edge) {
+        return edgeTargets[cluster][edge];
+    }
+
+    /** Returns the cost of the cheapest path inside the cluster between the entrances of the edge. */
+    public int edgeCost(int cluster, int edge) {
+        return edgeCosts[cluster][edge];
+    }
+
+    /** Approximate heap size of the abstract graph in bytes, the maze itself not included. */
+    public long byteSize() {
+        long ints = nodeOffsets.length;
+        for (int cluster = 0; cluster < entrances.length; cluster++) {
+            ints += entrances[cluster].length + edgeOffsets[cluster].length
+                + edgeTargets[cluster].length + edgeCosts[cluster].length;
+        }
+        return ints * Integer.BYTES;
+    }
+
+    // Measures the clusters [from, to) by halving the range until it is small enough
+    @SuppressWarnings("serial")
+    private final class MeasureClusters extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        MeasureClusters(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CLUSTERS_PER_TASK) {
+                ClusterSearch search = new ClusterSearch(maxClusterCells());
+                for (int cluster = from; cluster < to; cluster++) {
+                    measure(cluster, search);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MeasureClusters(from, middle), new MeasureClusters(middle, to));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package backend.academy;
+
+import java.util.Arrays;
+
+/**
+ * ClusterSearch runs Dijkstra's algorithm on a {@link BucketQueue}, like {@link DialSolver},
+ * but never leaves one cluster of a {@link ClusterGraph}. The graph uses it to measure the
+ * distances between the entrances of a cluster, {@link ClusterSolver} to connect the start and
+ * the goal to the entrances and to turn abstract paths back into cells.
+ * <p>The arrays are sized for the largest cluster and indexed by the position of a cell in
+ * its cluster; they are epoch-stamped and reused for every run. Not thread-safe.</p>
+ */
+final class ClusterSearch {
+    static final int UNREACHED = -1;
+    private static final int NO_PARENT = -1;
+
+    private final int[] costs;
+    private final int[] parents;   // Parent cell ids
+    private final int[] stamps;    // Epoch in which the cost of the cell was set
+    private final int[] closed;    // Epoch in which the cell was settled
+    private final int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+    private final int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+    private final BucketQueue queue = new BucketQueue(WallGrid.MAX_WEIGHT + 1);
+    private int epoch;
+    // The cluster of the last run
+    private WallGrid grid;
+    private int top;
+    private int left;
+    private int rows;
+    private int cols;
+
+    ClusterSearch(int maxClusterCells) {
+        this.costs = new int[maxClusterCells];
+        this.parents = new int[maxClusterCells];
+        this.stamps = new int[maxClusterCells];
+        this.closed = new int[maxClusterCells];
+    }
+
+    /**
+     * Searches from the source cell until the target cell is settled,
+     * or until every reachable cell of the cluster is with a target of -1.
+     */
+    void run(ClusterGraph clusters, int cluster, int source, int target) {
+        nextEpoch();
+        grid = clusters.grid();
+        top = clusters.clusterTop(cluster);
+        left = clusters.clusterLeft(cluster);
+        rows = clusters.clusterHeight(cluster);
+        cols = clusters.clusterWidth(cluster);
+        int sourceIndex = index(source);
+        costs[sourceIndex] = 0;
+        parents[sourceIndex] = NO_PARENT;
+        stamps[sourceIndex] = epoch;
+        queue.reset(0);
+        queue.push(source, 0);
+
+        while (!queue.isEmpty()) {
+            int current = queue.pop();
+            int currentIndex = index(current);
+            if (closed[currentIndex] == epoch || queue.currentKey() != costs[currentIndex]) {
+                continue; // A stale entry
+            }
+            closed[currentIndex] = epoch;
+            if (current == target) {
+                return;
+            }
+            int count = grid.neighbors(current, neighbors, weights);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (!contains(neighbor)) {
+                    continue;
+                }
+                int neighborIndex = index(neighbor);
+                int cost = costs[currentIndex] + Math.max(weights[i], 1);
+                if (closed[neighborIndex] != epoch && (stamps[neighborIndex] != epoch || cost < costs[neighborIndex])) {
+                    costs[neighborIndex] = cost;
+                    parents[neighborIndex] = current;
+                    stamps[neighborIndex] = epoch;
+                    queue.push(neighbor, cost);
+                }
+            }
+        }
+    }
+
+    /** Returns the cost of a cell of the cluster settled by the last run, or {@link #UNREACHED}. */
+    int cost(int cellId) {
+        int cellIndex = index(cellId);
+        return closed[cellIndex] == epoch ? costs[cellIndex] : UNREACHED;
+    }
+
+    /**
+     * Appends the path of the last run from its source to the target to the buffer.
+     * The source is not written again if it is the last cell of the buffer already.
+     *
+     * @return the new length of the buffer
+     */
+    int appendPath(int target, int[] buffer, int length) {
+        int from = length;
+        for (int cell = target; cell != NO_PARENT; cell = parents[index(cell)]) {
+            buffer[from++] = cell;
+        }
+        for (int i = length, j = from - 1; i < j; i++, j--) {
+            int cell = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = cell;
+        }
+        if (length > 0 && buffer[length - 1] == buffer[length]) {
+            System.arraycopy(buffer, length + 1, buffer, length, from - length - 1);
+            from--;
+        }
+        return from;
+    }
+
+    private boolean contains(int cellId) {
+        int row = grid.row(cellId) - top;
+        int col = grid.col(cellId) - left;
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    private int index(int cellId) {
+        return (grid.row(cellId) - top) * cols + grid.col(cellId) - left;
+    }
+
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0); // Once in two billion runs
+            Arrays.fill(closed, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
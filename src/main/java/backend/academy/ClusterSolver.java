@@ -0,0 +1,214 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * ClusterSolver finds cheapest paths with hierarchical path-finding (HPA*) on a
+ * {@link ClusterGraph}. The start and the goal are connected to the entrances of their
+ * clusters by a search inside those clusters; then A* with the Manhattan distance, or
+ * Dijkstra's algorithm, runs over the entrances only, on an {@link IndexedMinHeap}.
+ * {@link #path(int[])} refines the abstract path afterwards, searching again only the
+ * clusters the path goes through.
+ * <p>The abstract graph keeps every crossing passage, so the costs are the same as those of
+ * {@link DialSolver}: {@code max(weight, 1)} per passage. State is epoch-stamped and reused
+ * between queries and follows updates of the graph; a solver is not thread-safe, create one
+ * per thread, the graph can be shared.</p>
+ */
+public final class ClusterSolver {
+    public static final int NO_PATH = -1;
+    private static final int FROM_START = -1;  // Parent of the entrances reached from the start
+    private static final int DIRECT = -1;      // The best path stays inside the cluster of the start
+    private static final int NONE = -2;
+
+    private final @Getter ClusterGraph clusters;
+    private final ClusterSearch search;
+    private int[] costs = new int[0];
+    private int[] parents = new int[0];
+    private int[] nodeClusters = new int[0];  // Cluster of every node the last query reached
+    private int[] stamps = new int[0];
+    private IndexedMinHeap open = new IndexedMinHeap(0);
+    private int[] goalCosts = new int[0];  // Cost from every entrance of the goal's cluster to the goal
+    private int epoch;
+    private @Getter int expandedCount;     // Entrances expanded by the last query
+    // The last query
+    private int start;
+    private int goal;
+    private int bestNode;                  // Entrance the best path reaches the goal's cluster at, DIRECT or NONE
+
+    public ClusterSolver(ClusterGraph clusters) {
+        this.clusters = clusters;
+        this.search = new ClusterSearch(clusters.maxClusterCells());
+    }
+
+    /**
+     * Returns the cost of the cheapest path between the cells, or {@link #NO_PATH}.
+     *
+     * @throws IllegalStateException if the maze of the graph was generated again
+     */
+    public int dijkstra(int startCell, int goalCell) {
+        return search(startCell, goalCell, false);
+    }
+
+    /** Same as {@link #dijkstra(int, int)}, but entrances closer to the goal are expanded first. */
+    public int aStar(int startCell, int goalCell) {
+        return search(startCell, goalCell, true);
+    }
+
+    private int search(int startCell, int goalCell, boolean directed) {
+        clusters.requireCurrent();
+        ensureCapacity(clusters.nodeCount());
+        nextEpoch();
+        open.clear();
+        expandedCount = 0;
+        start = startCell;
+        goal = goalCell;
+        bestNode = NONE;
+        if (startCell == goalCell) {
+            bestNode = DIRECT;
+            return 0;
+        }
+        WallGrid grid = clusters.grid();
+        int best = Integer.MAX_VALUE;
+        int goalCluster = clusters.clusterOf(goalCell);
+        int startCluster = clusters.clusterOf(startCell);
+        search.run(clusters, goalCluster, goalCell, -1);
+        int goalEntrances = clusters.entranceCount(goalCluster);
+        if (goalCosts.length < goalEntrances) {
+            goalCosts = new int[goalEntrances];
+        }
+        for (int i = 0; i < goalEntrances; i++) {
+            goalCosts[i] = search.cost(clusters.entranceCell(goalCluster, i));
+        }
+        if (startCluster == goalCluster && search.cost(startCell) != ClusterSearch.UNREACHED) {
+            best = search.cost(startCell);
+            bestNode = DIRECT;
+        }
+
+        search.run(clusters, startCluster, startCell, -1);
+        int offset = clusters.nodeOffset(startCluster);
+        for (int i = 0; i < clusters.entranceCount(startCluster); i++) {
+            int cost = search.cost(clusters.entranceCell(startCluster, i));
+            if (cost != ClusterSearch.UNREACHED) {
+                relax(offset + i, startCluster, cost, FROM_START, directed);
+            }
+        }
+
+        while (!open.isEmpty() && open.key(open.peek()) < best) {
+            int node = open.poll();
+            expandedCount++;
+            int cluster = nodeClusters[node];
+            int first = clusters.nodeOffset(cluster);
+            int entrance = node - first;
+            int cost = costs[node];
+            if (cluster == goalCluster && goalCosts[entrance] != ClusterSearch.UNREACHED
+                && cost + goalCosts[entrance] < best) {
+                best = cost + goalCosts[entrance];
+                bestNode = node;
+            }
+            // Across the cluster
+            int end = clusters.edgeOffset(cluster, entrance + 1);
+            for (int edge = clusters.edgeOffset(cluster, entrance); edge < end; edge++) {
+                relax(first + clusters.edgeTarget(cluster, edge), cluster, cost + clusters.edgeCost(cluster, edge),
+                    node, directed);
+            }
+            // Into the neighbouring clusters
+            int cell = clusters.entranceCell(cluster, entrance);
+            for (Direction direction : Direction.values()) {
+                if (grid.isOpen(cell, direction)) {
+                    int neighbor = cell + direction.rowOffset() * grid.width() + direction.colOffset();
+                    int neighborCluster = clusters.clusterOf(neighbor);
+                    if (neighborCluster != cluster) {
+                        relax(clusters.nodeOffset(neighborCluster) + clusters.entranceOf(neighbor), neighborCluster,
+                            cost + Math.max(grid.weight(cell, direction), 1), node, directed);
+                    }
+                }
+            }
+        }
+        return bestNode == NONE ? NO_PATH : best;
+    }
+
+    private void relax(int node, int cluster, int cost, int parent, boolean directed) {
+        if (stamps[node] == epoch && costs[node] <= cost) {
+            return;
+        }
+        stamps[node] = epoch;
+        nodeClusters[node] = cluster;
+        costs[node] = cost;
+        parents[node] = parent;
+        open.insertOrDecrease(node, cost + (directed ? heuristic(node) : 0));
+    }
+
+    private int heuristic(int node) {
+        WallGrid grid = clusters.grid();
+        int cell = cell(node);
+        return Math.abs(grid.row(cell) - grid.row(goal)) + Math.abs(grid.col(cell) - grid.col(goal));
+    }
+
+    private int cell(int node) {
+        int cluster = nodeClusters[node];
+        return clusters.entranceCell(cluster, node - clusters.nodeOffset(cluster));
+    }
+
+    /**
+     * Writes the path found by the last query, from its start to its goal, into the buffer.
+     * Only the clusters on the path are searched again.
+     *
+     * @param buffer array with room for the whole path, {@link WallGrid#cellCount()} is always enough
+     * @return the number of cells written, or 0 if the last query found no path
+     */
+    public int path(int[] buffer) {
+        if (bestNode == NONE) {
+            return 0;
+        }
+        buffer[0] = start;
+        if (start == goal) {
+            return 1;
+        }
+        int startCluster = clusters.clusterOf(start);
+        if (bestNode == DIRECT) {
+            search.run(clusters, startCluster, start, goal);
+            return search.appendPath(goal, buffer, 1);
+        }
+        IntList route = new IntList();
+        for (int node = bestNode; node != FROM_START; node = parents[node]) {
+            route.add(node);
+        }
+        int length = 1;
+        int from = start;
+        int fromCluster = startCluster;
+        for (int i = route.size() - 1; i >= 0; i--) {
+            int to = cell(route.get(i));
+            int toCluster = clusters.clusterOf(to);
+            if (toCluster == fromCluster) {
+                search.run(clusters, fromCluster, from, to);
+                length = search.appendPath(to, buffer, length);
+            } else {
+                buffer[length++] = to; // A crossing passage
+            }
+            from = to;
+            fromCluster = toCluster;
+        }
+        search.run(clusters, fromCluster, from, goal);
+        return search.appendPath(goal, buffer, length);
+    }
+
+    private void ensureCapacity(int nodeCount) {
+        if (costs.length < nodeCount) {
+            costs = new int[nodeCount];
+            parents = new int[nodeCount];
+            nodeClusters = new int[nodeCount];
+            stamps = new int[nodeCount];
+            open = new IndexedMinHeap(nodeCount);
+            epoch = 0;
+        }
+    }
+
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0); // Once in two billion queries
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
@@ -49,6 +49,56 @@ public interface CreateGraphShortCycle {
         return false; // No short cycle found
     }
 
+    /**
+     * Primitive variant of createsShortCycle() for a spanning tree with a few extra passages.
+     * <p>In a tree the cycle closed by a new passage is as long as the tree path between its
+     * cells, which the index answers in O(log n). The extra passages that were already added
+     * can only make that path shorter, so the distance is also checked through every pair of
+     * their ends; with at most {@link #MIN_CYCLE_LENGTH} extras this costs a few hundred
+     * tree queries instead of a search over the maze.</p>
+     *
+     * @param extraEdges cells of the passages added after the tree, as pairs {@code a0, b0, a1, b1, ...}
+     * @param extraCount number of pairs in extraEdges
+     */
+    default boolean createsShortCycle(int cell1, int cell2, SpanningTreeIndex tree,
+        int[] extraEdges, int extraCount) {
+        if (tree.distance(cell1, cell2) < MIN_CYCLE_LENGTH) {
+            return true;
+        }
+
+        // Dijkstra over the ends of the extra passages, with tree distances between them
+        int ends = 2 * extraCount;
+        int[] distances = new int[ends];
+        boolean[] settled = new boolean[ends];
+        for (int i = 0; i < ends; i++) {
+            distances[i] = tree.distance(cell1, extraEdges[i]);
+        }
+        for (int round = 0; round < ends; round++) {
+            int nearest = -1;
+            for (int i = 0; i < ends; i++) {
+                if (!settled[i] && (nearest == -1 || distances[i] < distances[nearest])) {
+                    nearest = i;
+                }
+            }
+            int distance = distances[nearest];
+            if (distance >= MIN_CYCLE_LENGTH) {
+                break; // Every remaining end is too far to close a short cycle
+            }
+            settled[nearest] = true;
+            if (distance + tree.distance(extraEdges[nearest], cell2) < MIN_CYCLE_LENGTH) {
+                return true;
+            }
+            int partner = nearest ^ 1; // The other end of the same passage
+            distances[partner] = Math.min(distances[partner], distance + 1);
+            for (int i = 0; i < ends; i++) {
+                if (!settled[i]) {
+                    distances[i] = Math.min(distances[i], distance + tree.distance(extraEdges[nearest], extraEdges[i]));
+                }
+            }
+        }
+        return false;
+    }
+
     private List<Cell> getNeighbors(Cell cell, List<Edge> edges) {
         List<Cell> neighbors = new ArrayList<>();
         for (Edge edge : edges) {
@@ -0,0 +1,56 @@
+package backend.academy;
+
+import lombok.Getter;
+
+/**
+ * CsrAdjacency stores the passages of a maze in compressed sparse row form.
+ * The passages of cell {@code i} are the entries {@code offset(i)..offset(i + 1) - 1}
+ * of the targets and weights arrays, so a solver reads the neighbours of a cell
+ * as one sequential run of memory.
+ * <p>Every passage is stored twice, once for each of its cells.
+ * The index is immutable and is built in one linear pass over a {@link MazeGraph}.</p>
+ */
+public final class CsrAdjacency {
+    private final @Getter int cellCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final byte[] weights;
+
+    CsrAdjacency(MazeGraph graph) {
+        this.cellCount = graph.cellCount();
+        this.offsets = new int[cellCount + 1];
+        this.targets = new int[2 * graph.passageCount()];
+        this.weights = new byte[targets.length];
+
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int[] passageWeights = new int[WallGrid.MAX_NEIGHBORS];
+        int position = 0;
+        for (int cellId = 0; cellId < cellCount; cellId++) {
+            offsets[cellId] = position;
+            int count = graph.neighbors(cellId, neighbors, passageWeights);
+            for (int i = 0; i < count; i++) {
+                targets[position] = neighbors[i];
+                weights[position] = (byte) passageWeights[i];
+                position++;
+            }
+        }
+        offsets[cellCount] = position;
+    }
+
+    /** Index of the first passage of the cell; the passages of the cell end at offset(cellId + 1). */
+    public int offset(int cellId) {
+        return offsets[cellId];
+    }
+
+    public int target(int index) {
+        return targets[index];
+    }
+
+    public int weight(int index) {
+        return weights[index];
+    }
+
+    public int entryCount() {
+        return targets.length;
+    }
+}
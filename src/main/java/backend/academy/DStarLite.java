@@ -0,0 +1,230 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * DStarLite keeps the cheapest path between a start and a goal of a maze up to date while the
+ * maze changes, with the D* Lite algorithm (Koenig and Likhachev): a search from the goal
+ * back to the start that, after passages are opened, closed or given other weights, repairs
+ * only the cells whose cost from the goal the change affects.
+ * <p>The solver listens to the maze it is created for and reads its wall grid directly, so a
+ * change costs no snapshot of the whole maze. Changes are applied to the search as they come;
+ * {@link #plan()} then repairs it, in time that depends on the number of cells whose cost to
+ * the goal changed, not on the size of the maze. Changes near the start, where an agent walking
+ * the path sees them, are the cheapest. The start may move with {@link #moveStart(int)}.</p>
+ * <p>Costs are the same as those of {@link DialSolver}: {@code max(weight, 1)} per passage;
+ * the lives rule of {@link AStar} is not applied. Cells are ordered in an {@link IndexedMinHeap}
+ * by the two D* Lite keys packed into one long. Not thread-safe; a regenerated maze is
+ * searched again from scratch.</p>
+ */
+public final class DStarLite implements MazeChangeListener {
+    public static final int NO_PATH = -1;
+    private static final int INFINITE = Integer.MAX_VALUE / 4;  // Keys stay below 2^31 for any real maze
+
+    private final AbstractGraphMaze maze;
+    private final WallGrid grid;
+    private final int[] costs;           // g: cost from the cell to the goal as of its last expansion
+    private final int[] lookahead;       // rhs: cost from the cell to the goal through its neighbours
+    private final IndexedMinHeap open;   // Cells whose g and rhs differ
+    private final int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+    private final int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+    private final int[] affected = new int[WallGrid.MAX_NEIGHBORS];  // Neighbours of a cell that got more expensive
+    private final int[] affectedWeights = new int[WallGrid.MAX_NEIGHBORS];
+    private @Getter int start;
+    private final @Getter int goal;
+    private int keyModifier;             // km: how far the start has moved since the search began
+    private boolean cleared = true;      // The search must begin again
+    private @Getter int expandedCount;   // Cells expanded by the last plan()
+
+    public DStarLite(AbstractGraphMaze maze, int startCell, int goalCell) {
+        this.maze = maze;
+        this.grid = maze.grid();
+        int cellCount = grid.cellCount();
+        if (startCell < 0 || startCell >= cellCount || goalCell < 0 || goalCell >= cellCount) {
+            throw new IllegalArgumentException("Start and goal must be cells of the maze.");
+        }
+        this.costs = new int[cellCount];
+        this.lookahead = new int[cellCount];
+        this.open = new IndexedMinHeap(cellCount);
+        this.start = startCell;
+        this.goal = goalCell;
+        maze.addChangeListener(this);
+    }
+
+    /** Stops following the changes of the maze. */
+    public void detach() {
+        maze.removeChangeListener(this);
+    }
+
+    /**
+     * Brings the search up to date with the changes made since the last call.
+     *
+     * @return the cost of the cheapest path from the start to the goal, or {@link #NO_PATH}
+     */
+    public int plan() {
+        if (cleared) {
+            begin();
+        }
+        expandedCount = 0;
+        while (!open.isEmpty() && (open.key(open.peek()) < key(start) || lookahead[start] > costs[start])) {
+            int cell = open.peek();
+            long key = key(cell);
+            if (open.key(cell) < key) {
+                open.update(cell, key); // Queued before the start moved
+                continue;
+            }
+            expandedCount++;
+            if (costs[cell] > lookahead[cell]) {
+                costs[cell] = lookahead[cell];
+                open.remove(cell);
+                int count = grid.neighbors(cell, neighbors, weights);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = neighbors[i];
+                    if (neighbor != goal) {
+                        lookahead[neighbor] = Math.min(lookahead[neighbor], add(cost(weights[i]), costs[cell]));
+                        updateCell(neighbor);
+                    }
+                }
+            } else {
+                // The cell got more expensive; every neighbour that went through it looks again
+                int previous = costs[cell];
+                costs[cell] = INFINITE;
+                int count = grid.neighbors(cell, affected, affectedWeights);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = affected[i];
+                    if (neighbor != goal && lookahead[neighbor] == add(cost(affectedWeights[i]), previous)) {
+                        lookahead[neighbor] = cheapestNeighbor(neighbor);
+                    }
+                    updateCell(neighbor);
+                }
+                if (cell != goal) {
+                    lookahead[cell] = cheapestNeighbor(cell);
+                }
+                updateCell(cell);
+            }
+        }
+        // The start itself need not be expanded: its rhs is final once no queued key is smaller
+        return lookahead[start] >= INFINITE ? NO_PATH : lookahead[start];
+    }
+
+    private void begin() {
+        Arrays.fill(costs, INFINITE);
+        Arrays.fill(lookahead, INFINITE);
+        open.clear();
+        keyModifier = 0;
+        lookahead[goal] = 0;
+        open.update(goal, key(goal));
+        cleared = false;
+    }
+
+    /**
+     * Moves the start, usually one step along the path, keeping what the search knows.
+     */
+    public void moveStart(int cell) {
+        if (cell < 0 || cell >= costs.length) {
+            throw new IllegalArgumentException("Cell " + cell + " is outside the maze.");
+        }
+        keyModifier += distance(start, cell);
+        start = cell;
+    }
+
+    @Override
+    public void passageChanged(PassageChange change) {
+        if (cleared) {
+            return;
+        }
+        int cell = change.cellId();
+        int neighbor = grid.neighbor(cell, change.direction());
+        int previous = change.wasOpen() ? change.previousCost() : INFINITE;
+        int current = change.open() ? change.cost() : INFINITE;
+        repair(cell, neighbor, previous, current);
+        repair(neighbor, cell, previous, current);
+    }
+
+    @Override
+    public void mazeCleared() {
+        cleared = true;
+    }
+
+    // The passage from the cell to the neighbour went from the previous to the current cost
+    private void repair(int cell, int neighbor, int previous, int current) {
+        if (cell != goal) {
+            if (current < previous) {
+                lookahead[cell] = Math.min(lookahead[cell], add(current, costs[neighbor]));
+            } else if (lookahead[cell] == add(previous, costs[neighbor])) {
+                lookahead[cell] = cheapestNeighbor(cell);
+            }
+        }
+        updateCell(cell);
+    }
+
+    private int cheapestNeighbor(int cell) {
+        int best = INFINITE;
+        int count = grid.neighbors(cell, neighbors, weights);
+        for (int i = 0; i < count; i++) {
+            best = Math.min(best, add(cost(weights[i]), costs[neighbors[i]]));
+        }
+        return best;
+    }
+
+    private void updateCell(int cell) {
+        if (costs[cell] != lookahead[cell]) {
+            open.update(cell, key(cell));
+        } else {
+            open.remove(cell);
+        }
+    }
+
+    // The primary key in the high half, the smaller of g and rhs breaks ties
+    private long key(int cell) {
+        int known = Math.min(costs[cell], lookahead[cell]);
+        return (long) (known + distance(start, cell) + keyModifier) << Integer.SIZE | known;
+    }
+
+    private int distance(int from, int to) {
+        return Math.abs(grid.row(from) - grid.row(to)) + Math.abs(grid.col(from) - grid.col(to));
+    }
+
+    private static int cost(int weight) {
+        return Math.max(weight, 1);
+    }
+
+    private static int add(int cost, int remaining) {
+        return remaining >= INFINITE ? INFINITE : cost + remaining;
+    }
+
+    /**
+     * Writes the current path from the start to the goal into the buffer, following the
+     * cheapest neighbours. Call {@link #plan()} after changes first.
+     *
+     * @param buffer array with room for the whole path, the number of cells is always enough
+     * @return the number of cells written, or 0 if there is no path or it does not fit in the buffer
+     */
+    public int path(int[] buffer) {
+        if (cleared || lookahead[start] >= INFINITE) {
+            return 0;
+        }
+        int length = 0;
+        int cell = start;
+        buffer[length++] = cell;
+        while (cell != goal && length < buffer.length) {
+            int next = -1;
+            int best = INFINITE;
+            int count = grid.neighbors(cell, neighbors, weights);
+            for (int i = 0; i < count; i++) {
+                int through = add(cost(weights[i]), costs[neighbors[i]]);
+                if (through < best) {
+                    best = through;
+                    next = neighbors[i];
+                }
+            }
+            if (next < 0) {
+                return 0;
+            }
+            cell = next;
+            buffer[length++] = cell;
+        }
+        return cell == goal ? length : 0;
+    }
+}
@@ -0,0 +1,206 @@
+package backend.academy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lombok.Getter;
+
+/**
+ * DeltaStepping computes the cost of the cheapest path from one source cell to every cell
+ * of a weighted maze, relaxing passages in parallel on a {@link ForkJoinPool}.
+ * <p>Cells wait in buckets of width {@code delta} by their tentative cost. The smallest bucket
+ * is processed in phases: all its cells relax their light passages (cost up to delta) at once,
+ * which may put cells back into the same bucket, until it stays empty. Then the heavy passages
+ * of every cell settled in the bucket are relaxed once. A passage costs {@code max(weight, 1)},
+ * like in {@link DialSolver}, so only a few buckets are ever in use and they are kept in a ring.</p>
+ * <p>Costs are a plain {@code int[]}; a relaxation lowers a cost with a compare-and-set loop,
+ * so any number of tasks may relax passages into the same cell. A phase is split between
+ * tasks of a few thousand cells; smaller phases run on the calling thread.</p>
+ * <p>All state is reused between runs. An instance is not thread-safe, the graph can be shared.</p>
+ */
+public final class DeltaStepping {
+    public static final int UNREACHED = -1;
+    public static final int DEFAULT_DELTA = 2;  // Passages of cost 1 and 2 are light, 3 is heavy
+    private static final int CELLS_PER_TASK = 1 << 11;
+    private static final int NOT_QUEUED = -1;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final VarHandle COSTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final @Getter MazeGraph graph;
+    private final CsrAdjacency adjacency;
+    private final ForkJoinPool pool;
+    private final @Getter int delta;
+    private final int[] costs;
+    private final int[] queuedIn;  // Bucket the cell was last queued in, to skip duplicate entries
+    private final IntList[] buckets;
+    private final int bucketMask;
+    private IntList phase = new IntList();
+    private final IntList settled = new IntList();
+    private IntList[] outputs = new IntList[0];  // Cells relaxed by every task of a phase
+    private int queuedCount;
+    private @Getter int phaseCount;  // Light and heavy phases of the last run
+
+    public DeltaStepping(MazeGraph graph) {
+        this(graph, ForkJoinPool.commonPool(), DEFAULT_DELTA);
+    }
+
+    public DeltaStepping(MazeGraph graph, ForkJoinPool pool, int delta) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("Delta must be positive: " + delta);
+        }
+        this.graph = graph;
+        this.adjacency = graph.csr();
+        this.pool = pool;
+        this.delta = delta;
+        this.costs = new int[graph.cellCount()];
+        this.queuedIn = new int[graph.cellCount()];
+        // A relaxation from bucket i reaches at most bucket i + 1 + MAX_WEIGHT / delta
+        int bucketCount = Integer.highestOneBit((WallGrid.MAX_WEIGHT / delta + 2) * 2 - 1);
+        this.buckets = new IntList[bucketCount];
+        this.bucketMask = bucketCount - 1;
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new IntList();
+        }
+    }
+
+    /** Computes the costs of all cells reachable from the source. */
+    public void run(int source) {
+        if (source < 0 || source >= graph.cellCount()) {
+            throw new IllegalArgumentException("Cell " + source + " is outside the maze.");
+        }
+        Arrays.fill(costs, INFINITY);
+        Arrays.fill(queuedIn, NOT_QUEUED);
+        for (IntList bucket : buckets) {
+            bucket.clear();
+        }
+        queuedCount = 0;
+        phaseCount = 0;
+        costs[source] = 0;
+        enqueue(source);
+
+        for (int bucket = 0; queuedCount > 0; bucket++) {
+            settled.clear();
+            while (!buckets[bucket & bucketMask].isEmpty()) {
+                // Take the whole bucket; relaxations into it go to a fresh list
+                IntList taken = buckets[bucket & bucketMask];
+                buckets[bucket & bucketMask] = phase;
+                phase = taken;
+                queuedCount -= phase.size();
+                for (int i = 0; i < phase.size(); i++) {
+                    queuedIn[phase.get(i)] = NOT_QUEUED;
+                }
+                relaxAll(phase, bucket, true);
+                for (int i = 0; i < phase.size(); i++) {
+                    if (costs[phase.get(i)] / delta == bucket) {
+                        settled.add(phase.get(i));
+                    }
+                }
+                phase.clear();
+            }
+            if (!settled.isEmpty()) {
+                relaxAll(settled, bucket, false);
+            }
+        }
+    }
+
+    // Relaxes the light or heavy passages of the cells in parallel, then queues every cell whose cost went down
+    private void relaxAll(IntList cells, int bucket, boolean light) {
+        int tasks = (cells.size() + CELLS_PER_TASK - 1) / CELLS_PER_TASK;
+        if (outputs.length < tasks) {
+            outputs = Arrays.copyOf(outputs, tasks);
+            for (int i = 0; i < tasks; i++) {
+                if (outputs[i] == null) {
+                    outputs[i] = new IntList();
+                }
+            }
+        }
+        Relax relax = new Relax(cells, bucket, light, 0, tasks);
+        if (tasks > 1) {
+            pool.invoke(relax);
+        } else {
+            relax.compute();
+        }
+        phaseCount++;
+        for (int task = 0; task < tasks; task++) {
+            IntList output = outputs[task];
+            for (int i = 0; i < output.size(); i++) {
+                enqueue(output.get(i));
+            }
+        }
+    }
+
+    private void enqueue(int cell) {
+        int bucket = costs[cell] / delta;
+        if (queuedIn[cell] != bucket) {
+            queuedIn[cell] = bucket;
+            buckets[bucket & bucketMask].add(cell);
+            queuedCount++;
+        }
+    }
+
+    // Lowers the cost of the cell if the new cost is smaller; true if this call lowered it
+    private boolean lower(int cell, int cost) {
+        int current = (int) COSTS.getVolatile(costs, cell);
+        while (cost < current) {
+            int witness = (int) COSTS.compareAndExchange(costs, cell, current, cost);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    /** Returns the cost of the cheapest path from the source of the last run, or {@link #UNREACHED}. */
+    public int cost(int cellId) {
+        int cost = costs[cellId];
+        return cost == INFINITY ? UNREACHED : cost;
+    }
+
+    // Relaxes the passages of the cells of tasks [fromTask, toTask), each task writing to its own output
+    @SuppressWarnings("serial")
+    private final class Relax extends RecursiveAction {
+        private final IntList cells;
+        private final int bucket;
+        private final boolean light;
+        private final int fromTask;
+        private final int toTask;
+
+        Relax(IntList cells, int bucket, boolean light, int fromTask, int toTask) {
+            this.cells = cells;
+            this.bucket = bucket;
+            this.light = light;
+            this.fromTask = fromTask;
+            this.toTask = toTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTask - fromTask > 1) {
+                int middle = (fromTask + toTask) >>> 1;
+                invokeAll(new Relax(cells, bucket, light, fromTask, middle),
+                    new Relax(cells, bucket, light, middle, toTask));
+                return;
+            }
+            IntList output = outputs[fromTask];
+            output.clear();
+            int end = Math.min(cells.size(), (fromTask + 1) * CELLS_PER_TASK);
+            for (int i = fromTask * CELLS_PER_TASK; i < end; i++) {
+                int cell = cells.get(i);
+                int cost = (int) COSTS.getVolatile(costs, cell);
+                if (cost / delta != bucket) {
+                    continue; // A stale entry, the cell was queued again into a lower bucket
+                }
+                int last = adjacency.offset(cell + 1);
+                for (int passage = adjacency.offset(cell); passage < last; passage++) {
+                    int passageCost = Math.max(adjacency.weight(passage), 1);
+                    if ((passageCost <= delta) == light && lower(adjacency.target(passage), cost + passageCost)) {
+                        output.add(adjacency.target(passage));
+                    }
+                }
+            }
+        }
+    }
+}
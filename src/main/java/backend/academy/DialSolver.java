@@ -0,0 +1,129 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * DialSolver finds cheapest paths in weighted mazes with Dial's algorithm: Dijkstra's
+ * algorithm on a {@link BucketQueue} instead of a binary heap. Passage costs are tiny
+ * integers (1, 2 or 3), so the queue needs only a handful of buckets and every push and
+ * pop is O(1) without allocation.
+ * <p>{@link #aStar(int, int)} buckets the cells by {@code f = g + h} with the Manhattan
+ * distance as h. Every passage costs at least 1 and changes the distance by 1, so the
+ * heuristic is consistent and the first time the goal is popped its cost is final.</p>
+ * <p>A passage without a weight costs 1. State is epoch-stamped and reused between queries;
+ * a solver is not thread-safe, create one per thread, the graph can be shared.</p>
+ */
+public final class DialSolver {
+    public static final int NO_PATH = -1;
+    public static final int NO_PARENT = -1;
+    // f grows by at most the passage cost plus one step of the heuristic
+    private static final int KEY_SPAN = WallGrid.MAX_WEIGHT + 2;
+
+    private final @Getter MazeGraph graph;
+    private final CsrAdjacency adjacency;
+    private final int[] costs;
+    private final int[] parents;
+    private final int[] stamps;     // Epoch in which the cost of the cell was set
+    private final int[] closed;     // Epoch in which the cell was expanded
+    private final BucketQueue queue = new BucketQueue(KEY_SPAN);
+    private int epoch;
+    private @Getter int expandedCount;  // Cells expanded by the last query
+
+    public DialSolver(MazeGraph graph) {
+        this.graph = graph;
+        this.adjacency = graph.csr();
+        this.costs = new int[graph.cellCount()];
+        this.parents = new int[graph.cellCount()];
+        this.stamps = new int[graph.cellCount()];
+        this.closed = new int[graph.cellCount()];
+    }
+
+    /**
+     * Returns the cost of the cheapest path between the cells, or {@link #NO_PATH}.
+     * Cells are expanded in order of their cost from the start.
+     */
+    public int dijkstra(int startCell, int goalCell) {
+        return search(startCell, goalCell, false);
+    }
+
+    /**
+     * Same as {@link #dijkstra(int, int)}, but cells are expanded in order of cost plus
+     * Manhattan distance to the goal, which expands fewer cells for the same result.
+     */
+    public int aStar(int startCell, int goalCell) {
+        return search(startCell, goalCell, true);
+    }
+
+    private int search(int startCell, int goalCell, boolean directed) {
+        nextEpoch();
+        expandedCount = 0;
+        costs[startCell] = 0;
+        parents[startCell] = NO_PARENT;
+        stamps[startCell] = epoch;
+        int startKey = directed ? heuristic(startCell, goalCell) : 0;
+        queue.reset(startKey);
+        queue.push(startCell, startKey);
+
+        while (!queue.isEmpty()) {
+            int current = queue.pop();
+            if (closed[current] == epoch
+                || queue.currentKey() != costs[current] + (directed ? heuristic(current, goalCell) : 0)) {
+                continue; // A stale entry, the cell was pushed again with a lower key
+            }
+            closed[current] = epoch;
+            expandedCount++;
+            if (current == goalCell) {
+                return costs[current];
+            }
+
+            int end = adjacency.offset(current + 1);
+            for (int passage = adjacency.offset(current); passage < end; passage++) {
+                int neighbor = adjacency.target(passage);
+                int cost = costs[current] + Math.max(adjacency.weight(passage), 1);
+                if (closed[neighbor] != epoch && (stamps[neighbor] != epoch || cost < costs[neighbor])) {
+                    costs[neighbor] = cost;
+                    parents[neighbor] = current;
+                    stamps[neighbor] = epoch;
+                    queue.push(neighbor, cost + (directed ? heuristic(neighbor, goalCell) : 0));
+                }
+            }
+        }
+        return NO_PATH;
+    }
+
+    private int heuristic(int cell, int goal) {
+        return Math.abs(graph.row(cell) - graph.row(goal)) + Math.abs(graph.col(cell) - graph.col(goal));
+    }
+
+    /**
+     * Writes the path found by the last query, from its start to the given cell, into the buffer.
+     *
+     * @param buffer array with room for the whole path, {@link MazeGraph#cellCount()} is always enough
+     * @return the number of cells written, or 0 if the last query did not settle the cell
+     */
+    public int path(int goalCell, int[] buffer) {
+        if (closed[goalCell] != epoch || epoch == 0) {
+            return 0;
+        }
+        int length = 0;
+        for (int cell = goalCell; cell != NO_PARENT; cell = parents[cell]) {
+            buffer[length++] = cell;
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int cell = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = cell;
+        }
+        return length;
+    }
+
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0); // Once in two billion queries
+            Arrays.fill(closed, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
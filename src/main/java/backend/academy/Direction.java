@@ -0,0 +1,48 @@
+package backend.academy;
+
+import lombok.Getter;
+
+/**
+ * The four directions in which a passage can leave a cell of the maze grid.
+ * Rows grow to the south and columns grow to the east.
+ */
+public enum Direction {
+    NORTH(-1, 0),
+    EAST(0, 1),
+    SOUTH(1, 0),
+    WEST(0, -1);
+
+    private final @Getter int rowOffset;
+    private final @Getter int colOffset;
+
+    Direction(int rowOffset, int colOffset) {
+        this.rowOffset = rowOffset;
+        this.colOffset = colOffset;
+    }
+
+    public Direction opposite() {
+        return switch (this) {
+            case NORTH -> SOUTH;
+            case EAST -> WEST;
+            case SOUTH -> NORTH;
+            case WEST -> EAST;
+        };
+    }
+
+    /**
+     * Returns the direction that leads from the first cell to the second one.
+     *
+     * @throws IllegalArgumentException if the cells are not adjacent
+     */
+    public static Direction between(int row1, int col1, int row2, int col2) {
+        int rowDelta = row2 - row1;
+        int colDelta = col2 - col1;
+        for (Direction direction : values()) {
+            if (direction.rowOffset == rowDelta && direction.colOffset == colDelta) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Cells (" + row1 + ", " + col1 + ") and ("
+            + row2 + ", " + col2 + ") are not adjacent.");
+    }
+}
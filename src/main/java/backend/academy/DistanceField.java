@@ -0,0 +1,141 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * DistanceField holds the distance from every cell of a maze to one goal cell, together with
+ * the first step of a shortest path from the cell to the goal (a flow field).
+ * <p>It is built by a single search from the goal: a BFS for unweighted mazes, or Dijkstra on a
+ * {@link BucketQueue} for weighted ones, where a passage costs {@code max(weight, 1)} like in
+ * {@link DialSolver}. After that any number of agents can walk to the goal without searching:
+ * every cell points to a neighbour that is one step closer.</p>
+ * <p>Distances are a flat {@code int[]}, the steps take two bits per cell (the ordinal of the
+ * {@link Direction}). The field is immutable and can be shared between threads.</p>
+ */
+public final class DistanceField {
+    public static final int UNREACHABLE = -1;
+    private static final int BITS_PER_STEP = 2;
+    private static final int STEPS_PER_WORD = Long.SIZE / BITS_PER_STEP;
+    private static final long STEP_MASK = 0b11L;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int[] NO_CELLS = new int[0];
+
+    private final @Getter MazeGraph graph;
+    private final @Getter int goal;
+    private final int[] distances;
+    private final long[] steps;
+
+    public DistanceField(MazeGraph graph, int goal) {
+        if (goal < 0 || goal >= graph.cellCount()) {
+            throw new IllegalArgumentException("Cell " + goal + " is outside the maze.");
+        }
+        this.graph = graph;
+        this.goal = goal;
+        this.distances = new int[graph.cellCount()];
+        this.steps = new long[(graph.cellCount() + STEPS_PER_WORD - 1) / STEPS_PER_WORD];
+        Arrays.fill(distances, UNREACHABLE);
+        distances[goal] = 0;
+        if (graph.weighted()) {
+            fillWeighted();
+        } else {
+            fillUnweighted();
+        }
+    }
+
+    private void fillUnweighted() {
+        IntRingQueue queue = new IntRingQueue();
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            for (Direction direction : DIRECTIONS) {
+                if (graph.isOpen(current, direction)) {
+                    int neighbor = neighbor(current, direction);
+                    if (distances[neighbor] == UNREACHABLE) {
+                        distances[neighbor] = distances[current] + 1;
+                        setStep(neighbor, direction.opposite());
+                        queue.add(neighbor);
+                    }
+                }
+            }
+        }
+    }
+
+    private void fillWeighted() {
+        BucketQueue queue = new BucketQueue(WallGrid.MAX_WEIGHT + 1);
+        queue.reset(0);
+        queue.push(goal, 0);
+        while (!queue.isEmpty()) {
+            int current = queue.pop();
+            if (queue.currentKey() != distances[current]) {
+                continue; // A stale entry, the cell was pushed again with a lower distance
+            }
+            for (Direction direction : DIRECTIONS) {
+                if (graph.isOpen(current, direction)) {
+                    int neighbor = neighbor(current, direction);
+                    int distance = distances[current] + Math.max(graph.weight(current, direction), 1);
+                    if (distances[neighbor] == UNREACHABLE || distance < distances[neighbor]) {
+                        distances[neighbor] = distance;
+                        setStep(neighbor, direction.opposite());
+                        queue.push(neighbor, distance);
+                    }
+                }
+            }
+        }
+    }
+
+    private int neighbor(int cellId, Direction direction) {
+        return cellId + direction.rowOffset() * graph.width() + direction.colOffset();
+    }
+
+    private void setStep(int cellId, Direction direction) {
+        int shift = cellId % STEPS_PER_WORD * BITS_PER_STEP;
+        int word = cellId / STEPS_PER_WORD;
+        steps[word] = steps[word] & ~(STEP_MASK << shift) | (long) direction.ordinal() << shift;
+    }
+
+    /** Returns the distance from the cell to the goal, or {@link #UNREACHABLE}. */
+    public int distance(int cellId) {
+        return distances[cellId];
+    }
+
+    public boolean isReachable(int cellId) {
+        return distances[cellId] != UNREACHABLE;
+    }
+
+    /**
+     * Returns the first step of a shortest path from the cell to the goal.
+     *
+     * @throws IllegalArgumentException if the cell is the goal or cannot reach it
+     */
+    public Direction nextStep(int cellId) {
+        if (cellId == goal || distances[cellId] == UNREACHABLE) {
+            throw new IllegalArgumentException("Cell " + cellId + " has no step towards the goal " + goal + ".");
+        }
+        long word = steps[cellId / STEPS_PER_WORD];
+        return DIRECTIONS[(int) (word >>> cellId % STEPS_PER_WORD * BITS_PER_STEP & STEP_MASK)];
+    }
+
+    /** Returns the neighbour one step closer to the goal, see {@link #nextStep(int)}. */
+    public int nextCell(int cellId) {
+        return neighbor(cellId, nextStep(cellId));
+    }
+
+    /**
+     * Returns the cells of a shortest path from the start cell to the goal, both included,
+     * or an empty array if the goal cannot be reached.
+     */
+    public int[] path(int startCell) {
+        if (distances[startCell] == UNREACHABLE) {
+            return NO_CELLS;
+        }
+        // In an unweighted maze the distance is the number of steps; a weighted path is at most as long
+        int[] cells = new int[distances[startCell] + 1];
+        int length = 0;
+        for (int cell = startCell; cell != goal; cell = nextCell(cell)) {
+            cells[length++] = cell;
+        }
+        cells[length++] = goal;
+        return Arrays.copyOf(cells, length);
+    }
+}
@@ -8,12 +8,12 @@ public class Edge {
     private final Cell cell2;
     private final int weight;
 
-    public Edge(final Cell cell1, final Cell cell2, final Integer weight) {
+    public Edge(final Cell cell1, final Cell cell2, final int weight) {
         if (cell1 == null || cell2 == null) {
             throw new IllegalArgumentException("Cells in an Edge cannot be null");
         }
-        if (weight == null || weight < 0) {
-            throw new IllegalArgumentException("Weight must be non-null and non-negative");
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must be non-negative");
         }
         this.cell1 = cell1;
         this.cell2 = cell2;
@@ -23,5 +23,10 @@ public class Edge {
     public Edge(final Cell cell1, final Cell cell2) {
         this(cell1, cell2, 0); // default weight
     }
+
+    // Creates the edge from primitive cell ids of a maze of the given width
+    public static Edge ofIds(final int cellId1, final int cellId2, final int weight, final int width) {
+        return new Edge(Cell.ofId(cellId1, width), Cell.ofId(cellId2, width), weight);
+    }
 }
 
@@ -0,0 +1,125 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * EllerMaze generates a perfect maze with Eller's algorithm, one row at a time.
+ * Finished rows are handed to a {@link RowSink} and forgotten, so the generator keeps
+ * only O(width) state and the height of the maze is not limited by memory.
+ * <p>Every cell of the current row belongs to a set of cells that are already connected.
+ * Neighbours of different sets are joined at random, then every set sends at least one
+ * passage down to the next row. The last row joins all remaining sets.</p>
+ * <p>Sets are labelled with numbers below the width and merged with a union-find,
+ * so one row costs O(width).</p>
+ * <p>This algorithm is designed for non-weighted graphs.</p>
+ */
+public final class EllerMaze implements Maze {
+    private static final int NO_SET = -1;
+
+    private final @Getter int width;
+    private final @Getter int height;
+    private final RowSink sink;
+    private final MazeRandom random;
+
+    public EllerMaze(int width, int height, RowSink sink) {
+        this(width, height, sink, MazeRandom.fromConfiguration());
+    }
+
+    public EllerMaze(int width, int height, RowSink sink, MazeRandom random) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be positive values.");
+        }
+        this.width = width;
+        this.height = height;
+        this.sink = sink;
+        this.random = random;
+    }
+
+    @Override
+    public void generateMaze() {
+        MazeRow row = new MazeRow(width);
+        int[] sets = new int[width];       // Set of every cell of the current row
+        int[] parent = new int[width];     // Union-find over the set labels
+        int[] lastCol = new int[width];    // Rightmost cell of every set in the row
+        boolean[] labelUsed = new boolean[width];
+        boolean[] hasPassageDown = new boolean[width];
+        Arrays.fill(sets, NO_SET);
+
+        for (int rowIndex = 0; rowIndex < height; rowIndex++) {
+            boolean lastRow = rowIndex == height - 1;
+            row.reset(rowIndex, lastRow);
+            assignNewSets(sets, parent, labelUsed);
+            joinNeighbours(row, sets, parent, lastRow);
+            if (!lastRow) {
+                carveDown(row, sets, lastCol, hasPassageDown);
+            }
+            sink.acceptRow(row);
+        }
+    }
+
+    // Cells without a passage from above start their own sets, using the labels no set holds now
+    private void assignNewSets(int[] sets, int[] parent, boolean[] labelUsed) {
+        Arrays.fill(labelUsed, false);
+        for (int set : sets) {
+            if (set != NO_SET) {
+                labelUsed[set] = true;
+            }
+        }
+        int freeLabel = 0;
+        for (int col = 0; col < width; col++) {
+            if (sets[col] == NO_SET) {
+                while (labelUsed[freeLabel]) {
+                    freeLabel++;
+                }
+                sets[col] = freeLabel;
+                labelUsed[freeLabel] = true;
+            }
+        }
+        for (int label = 0; label < width; label++) {
+            parent[label] = label;
+        }
+    }
+
+    private void joinNeighbours(MazeRow row, int[] sets, int[] parent, boolean lastRow) {
+        for (int col = 0; col < width - 1; col++) {
+            int root1 = find(parent, sets[col]);
+            int root2 = find(parent, sets[col + 1]);
+            if (root1 != root2 && (lastRow || random.nextBoolean())) {
+                parent[root2] = root1;
+                row.openEast(col);
+            }
+        }
+        for (int col = 0; col < width; col++) {
+            sets[col] = find(parent, sets[col]);
+        }
+    }
+
+    // Every set goes down at random, and is forced to at its last cell if it has not yet
+    private void carveDown(MazeRow row, int[] sets, int[] lastCol, boolean[] hasPassageDown) {
+        for (int col = 0; col < width; col++) {
+            lastCol[sets[col]] = col;
+            hasPassageDown[sets[col]] = false;
+        }
+        for (int col = 0; col < width; col++) {
+            int set = sets[col];
+            boolean forced = lastCol[set] == col && !hasPassageDown[set];
+            if (forced || random.nextBoolean()) {
+                row.openSouth(col);
+                hasPassageDown[set] = true;
+            } else {
+                sets[col] = NO_SET; // The cell below will start a new set
+            }
+        }
+    }
+
+    // Iterative find with path halving
+    private static int find(int[] parent, int label) {
+        int current = label;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+}
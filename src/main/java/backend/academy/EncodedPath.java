@@ -0,0 +1,69 @@
+package backend.academy;
+
+import lombok.Getter;
+
+/**
+ * EncodedPath stores a path through the maze as its start cell and a list of moves,
+ * two bits per move (the ordinal of the {@link Direction}). A path of a thousand cells
+ * takes 250 bytes instead of a thousand ints or {@link Cell} objects.
+ * <p>Instances are immutable.</p>
+ */
+public final class EncodedPath {
+    private static final int BITS_PER_MOVE = 2;
+    private static final int MOVES_PER_WORD = Long.SIZE / BITS_PER_MOVE;
+    private static final long MOVE_MASK = 0b11L;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int HEADER_BYTES = 32;  // Object and array headers, start and move count
+
+    private final @Getter int start;
+    private final @Getter int moveCount;
+    private final long[] moves;
+
+    private EncodedPath(int start, int moveCount, long[] moves) {
+        this.start = start;
+        this.moveCount = moveCount;
+        this.moves = moves;
+    }
+
+    /**
+     * Encodes a path given as consecutive adjacent cell ids.
+     *
+     * @throws IllegalArgumentException if two consecutive cells are not adjacent
+     */
+    public static EncodedPath of(int[] cells, int length, int width) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Path must contain at least one cell.");
+        }
+        int moveCount = length - 1;
+        long[] moves = new long[(moveCount + MOVES_PER_WORD - 1) / MOVES_PER_WORD];
+        for (int i = 0; i < moveCount; i++) {
+            Direction direction = Direction.between(cells[i] / width, cells[i] % width,
+                cells[i + 1] / width, cells[i + 1] % width);
+            moves[i / MOVES_PER_WORD] |= (long) direction.ordinal() << i % MOVES_PER_WORD * BITS_PER_MOVE;
+        }
+        return new EncodedPath(cells[0], moveCount, moves);
+    }
+
+    public Direction move(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + moveCount);
+        }
+        return DIRECTIONS[(int) (moves[index / MOVES_PER_WORD] >>> index % MOVES_PER_WORD * BITS_PER_MOVE & MOVE_MASK)];
+    }
+
+    /** Approximate heap size of the path in bytes. */
+    public int byteSize() {
+        return HEADER_BYTES + moves.length * Long.BYTES;
+    }
+
+    /** Returns the cell ids of the path, from the start to the end. */
+    public int[] decode(int width) {
+        int[] cells = new int[moveCount + 1];
+        cells[0] = start;
+        for (int i = 0; i < moveCount; i++) {
+            Direction direction = move(i);
+            cells[i + 1] = cells[i] + direction.rowOffset() * width + direction.colOffset();
+        }
+        return cells;
+    }
+}
@@ -48,7 +48,7 @@ public class Game {
             }
 
             maze.generateMaze();
-            List<String> outputMaze = maze.assembleMaze(maze.mazeEdges(), maze.height(), maze.width());
+            List<String> outputMaze = maze.assembleMaze();
             maze.printMaze(outputMaze);
 
             int[] coordinates = getCoordinates(scanner, size);
@@ -0,0 +1,17 @@
+package backend.academy;
+
+/**
+ * A lower bound of the cost of the cheapest path between two cells, used by {@link AStar}
+ * to decide which cells to expand first.
+ * <p>To keep the paths of A* the cheapest ones, an estimate must never exceed the real cost
+ * (admissible), and must not drop by more than the cost of a passage when moving to a
+ * neighbour (consistent).</p>
+ */
+@FunctionalInterface
+public interface Heuristic {
+    /** Manhattan distance: every passage of a weighted maze costs at least 1. */
+    Heuristic MANHATTAN = (graph, cell, goal) ->
+        Math.abs(graph.row(cell) - graph.row(goal)) + Math.abs(graph.col(cell) - graph.col(goal));
+
+    int estimate(MazeGraph graph, int cell, int goal);
+}
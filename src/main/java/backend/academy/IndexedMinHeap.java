@@ -0,0 +1,158 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * IndexedMinHeap is a binary min-heap of element ids {@code 0..capacity-1} with long keys.
+ * Every id is in the heap at most once, and its key can be lowered in place (decrease-key),
+ * so the heap never holds more than {@code capacity} entries.
+ * <p>The heap is two int arrays: the heap order itself and the position of every id
+ * in it, plus the keys. Keys may be any long, so two int keys compared one after the other
+ * can be packed into one; ties are popped in no particular order.</p>
+ */
+public final class IndexedMinHeap {
+    private static final int ABSENT = -1;
+
+    private final int[] heap;
+    private final int[] positions;
+    private final long[] keys;
+    private @Getter int size;
+    private @Getter int peakSize;  // Largest size since the last clear()
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return positions[id] != ABSENT;
+    }
+
+    /** Returns the key of an id that is in the heap. */
+    public long key(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Adds the id with the given key, or lowers its key if it is already in the heap.
+     *
+     * @return false if the id is in the heap with a key that is not larger
+     */
+    public boolean insertOrDecrease(int id, long key) {
+        int position = positions[id];
+        if (position == ABSENT) {
+            keys[id] = key;
+            position = size++;
+            peakSize = Math.max(peakSize, size);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+        } else {
+            return false;
+        }
+        siftUp(position, id);
+        return true;
+    }
+
+    /** Adds the id with the given key, or moves it to the new key, which may be larger, if it is in the heap. */
+    public void update(int id, long key) {
+        int position = positions[id];
+        if (position == ABSENT || key < keys[id]) {
+            insertOrDecrease(id, key);
+            return;
+        }
+        keys[id] = key;
+        siftDown(position, id);
+    }
+
+    /** Removes the id if it is in the heap. */
+    public void remove(int id) {
+        int position = positions[id];
+        if (position == ABSENT) {
+            return;
+        }
+        positions[id] = ABSENT;
+        size--;
+        if (position < size) {
+            int last = heap[size];
+            if (keys[last] < keys[id]) {
+                siftUp(position, last);
+            } else {
+                siftDown(position, last);
+            }
+        }
+    }
+
+    /** Returns the id with the smallest key without removing it. */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /** Removes the id with the smallest key and returns it. */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        int min = heap[0];
+        positions[min] = ABSENT;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size]);
+        }
+        return min;
+    }
+
+    /** Removes every id in O(size), the arrays are kept for the next use. */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+        peakSize = 0;
+    }
+
+    private void siftUp(int position, int id) {
+        int current = position;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= keys[id]) {
+                break;
+            }
+            place(current, parentId);
+            current = parent;
+        }
+        place(current, id);
+    }
+
+    private void siftDown(int position, int id) {
+        int current = position;
+        int half = size >>> 1;  // Positions below half have at least one child
+        while (current < half) {
+            int child = 2 * current + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (keys[id] <= keys[heap[child]]) {
+                break;
+            }
+            place(current, heap[child]);
+            current = child;
+        }
+        place(current, id);
+    }
+
+    private void place(int position, int id) {
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
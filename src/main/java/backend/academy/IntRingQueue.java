@@ -0,0 +1,52 @@
+package backend.academy;
+
+/**
+ * A first-in first-out queue of ints on a power-of-two ring buffer.
+ * The buffer doubles when it is full and is kept after clear(), so a queue reused
+ * across searches stops allocating once it has seen the largest frontier.
+ */
+final class IntRingQueue {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] elements = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    void add(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[head + size & elements.length - 1] = value;
+        size++;
+    }
+
+    int poll() {
+        int value = elements[head];
+        head = head + 1 & elements.length - 1;
+        size--;
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Doubles the buffer and unrolls its content to the front
+    private void grow() {
+        int[] larger = new int[elements.length * 2];
+        for (int i = 0; i < size; i++) {
+            larger[i] = elements[head + i & elements.length - 1];
+        }
+        elements = larger;
+        head = 0;
+    }
+}
@@ -0,0 +1,273 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * JunctionGraph is a maze with its corridors contracted: only junctions, dead ends and other
+ * cells whose degree is not 2 remain as nodes, and every corridor of degree-2 cells between
+ * two of them becomes one edge whose cost is the sum of its passage costs ({@code max(weight, 1)},
+ * like in {@link DialSolver}). The longer the corridors of a maze, the smaller the graph; the
+ * branchy mazes of {@link PrimMaze} and {@link KruskalMaze} keep about 60% of their cells as
+ * junctions. {@link JunctionSolver} searches it.
+ * <p>The cells inside the corridors are kept in one packed array, in order from the first end of
+ * the corridor to the second, together with their cost from the first end. Every cell knows
+ * its junction or its place in that array, so a query may start and end anywhere and full
+ * paths can be rebuilt. A ring of degree-2 cells without any junction gets one of its cells
+ * promoted to a junction.</p>
+ * <p>Edges are stored in compressed sparse rows by junction; a corridor that leads back to its
+ * own junction is kept for its cells but has no edge, it never shortens a path.</p>
+ * <p>The graph is immutable and can be shared by threads; {@link MazeGraph#junctions()} builds
+ * it once per maze snapshot.</p>
+ */
+public final class JunctionGraph {
+    private static final int WORD_SHIFT = 6;  // log2(Long.SIZE)
+    private static final int CORRIDOR_DEGREE = 2;
+
+    private final @Getter MazeGraph graph;
+    private final int[] junctionCells;     // Cell of every junction
+    private final int[] edgeOffsets;       // Edges of junction j are [edgeOffsets[j], edgeOffsets[j + 1])
+    private final int[] edgeTargets;
+    private final int[] edgeCosts;
+    private final int[] edgeCorridors;     // Corridor << 1, plus 1 if it is walked from its second end
+    private final int[] corridorEnds;      // First and second end junction of every corridor
+    private final int[] corridorCosts;
+    private final int[] corridorOffsets;   // Cells of corridor c are [corridorOffsets[c], corridorOffsets[c + 1])
+    private final int[] corridorCells;
+    private final int[] slotCosts;         // Cost from the first end of the corridor to the cell in the slot
+    private final long[] junctionBits;     // Set for the cells that are junctions
+    private final int[] cellIndex;         // Junction of a junction cell, slot of a corridor cell
+    private final @Getter long buildNanos;
+
+    JunctionGraph(MazeGraph graph) {
+        long started = System.nanoTime();
+        this.graph = graph;
+        int cellCount = graph.cellCount();
+        this.junctionBits = new long[(cellCount + Long.SIZE - 1) / Long.SIZE];
+        this.cellIndex = new int[cellCount];
+        Arrays.fill(cellIndex, -1);
+
+        IntList junctions = new IntList();
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (graph.degree(cell) != CORRIDOR_DEGREE) {
+                addJunction(cell, junctions);
+            }
+        }
+        Corridors corridors = new Corridors();
+        for (int j = 0; j < junctions.size(); j++) {
+            walkCorridors(junctions.get(j), corridors);
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cellIndex[cell] == -1) {
+                addJunction(cell, junctions); // A ring of corridor cells
+                walkCorridors(cell, corridors);
+            }
+        }
+
+        this.junctionCells = junctions.toArray();
+        this.corridorEnds = corridors.ends.toArray();
+        this.corridorCosts = corridors.costs.toArray();
+        this.corridorCells = corridors.cells.toArray();
+        this.slotCosts = corridors.slotCosts.toArray();
+        corridors.offsets.add(corridorCells.length);
+        this.corridorOffsets = corridors.offsets.toArray();
+
+        // Two directed edges per corridor between different junctions
+        this.edgeOffsets = new int[junctionCells.length + 1];
+        for (int c = 0; c < corridorCosts.length; c++) {
+            if (corridorEnds[2 * c] != corridorEnds[2 * c + 1]) {
+                edgeOffsets[corridorEnds[2 * c] + 1]++;
+                edgeOffsets[corridorEnds[2 * c + 1] + 1]++;
+            }
+        }
+        for (int j = 0; j < junctionCells.length; j++) {
+            edgeOffsets[j + 1] += edgeOffsets[j];
+        }
+        int edgeCount = edgeOffsets[junctionCells.length];
+        this.edgeTargets = new int[edgeCount];
+        this.edgeCosts = new int[edgeCount];
+        this.edgeCorridors = new int[edgeCount];
+        int[] next = Arrays.copyOf(edgeOffsets, junctionCells.length);
+        for (int c = 0; c < corridorCosts.length; c++) {
+            int first = corridorEnds[2 * c];
+            int second = corridorEnds[2 * c + 1];
+            if (first != second) {
+                addEdge(next[first]++, second, c, false);
+                addEdge(next[second]++, first, c, true);
+            }
+        }
+        this.buildNanos = System.nanoTime() - started;
+    }
+
+    private void addJunction(int cell, IntList junctions) {
+        junctionBits[cell >>> WORD_SHIFT] |= 1L << cell;
+        cellIndex[cell] = junctions.size();
+        junctions.add(cell);
+    }
+
+    private void addEdge(int edge, int target, int corridor, boolean reversed) {
+        edgeTargets[edge] = target;
+        edgeCosts[edge] = corridorCosts[corridor];
+        edgeCorridors[edge] = corridor << 1 | (reversed ? 1 : 0);
+    }
+
+    // Follows every passage of the junction cell to the next junction and records corridors not seen yet
+    private void walkCorridors(int start, Corridors corridors) {
+        int width = graph.width();
+        for (Direction first : Direction.values()) {
+            if (!graph.isOpen(start, first)) {
+                continue;
+            }
+            int cell = start + first.rowOffset() * width + first.colOffset();
+            // Each corridor is walked from both ends; keep it the first time
+            if (isJunction(cell) ? cell < start : cellIndex[cell] != -1) {
+                continue;
+            }
+            corridors.offsets.add(corridors.cells.size());
+            int cost = Math.max(graph.weight(start, first), 1);
+            Direction came = first;
+            while (!isJunction(cell)) {
+                cellIndex[cell] = corridors.cells.size();
+                corridors.cells.add(cell);
+                corridors.slotCosts.add(cost);
+                Direction next = exit(cell, came.opposite());
+                cost += Math.max(graph.weight(cell, next), 1);
+                cell += next.rowOffset() * width + next.colOffset();
+                came = next;
+            }
+            corridors.ends.add(cellIndex[start]);
+            corridors.ends.add(cellIndex[cell]);
+            corridors.costs.add(cost);
+        }
+    }
+
+    // The open direction of a corridor cell other than the one it was entered from
+    private Direction exit(int cell, Direction entered) {
+        for (Direction direction : Direction.values()) {
+            if (direction != entered && graph.isOpen(cell, direction)) {
+                return direction;
+            }
+        }
+        throw new IllegalStateException("Cell " + cell + " is not part of a corridor.");
+    }
+
+    public boolean isJunction(int cellId) {
+        return (junctionBits[cellId >>> WORD_SHIFT] & 1L << cellId) != 0;
+    }
+
+    /** Returns the junction of a junction cell. */
+    public int junctionOf(int cellId) {
+        return cellIndex[cellId];
+    }
+
+    /** Returns the slot of a corridor cell in the packed corridor array. */
+    public int slotOf(int cellId) {
+        return cellIndex[cellId];
+    }
+
+    /** Returns the corridor that holds the slot. */
+    public int corridorOfSlot(int slot) {
+        int found = Arrays.binarySearch(corridorOffsets, slot);
+        if (found < 0) {
+            return -found - 2;
+        }
+        // Corridors without inner cells share their offset with the next one
+        while (corridorOffsets[found + 1] == slot) {
+            found++;
+        }
+        return found;
+    }
+
+    public int junctionCount() {
+        return junctionCells.length;
+    }
+
+    public int junctionCell(int junction) {
+        return junctionCells[junction];
+    }
+
+    /** Number of directed edges, two per corridor between different junctions. */
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    public int edgeOffset(int junction) {
+        return edgeOffsets[junction];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public int edgeCost(int edge) {
+        return edgeCosts[edge];
+    }
+
+    public int edgeCorridor(int edge) {
+        return edgeCorridors[edge] >>> 1;
+    }
+
+    /** True if the edge walks its corridor from the second end to the first. */
+    public boolean isEdgeReversed(int edge) {
+        return (edgeCorridors[edge] & 1) != 0;
+    }
+
+    public int corridorCount() {
+        return corridorCosts.length;
+    }
+
+    public int corridorFirst(int corridor) {
+        return corridorEnds[2 * corridor];
+    }
+
+    public int corridorSecond(int corridor) {
+        return corridorEnds[2 * corridor + 1];
+    }
+
+    public int corridorCost(int corridor) {
+        return corridorCosts[corridor];
+    }
+
+    /** Number of cells inside the corridor, its end junctions not included. */
+    public int corridorLength(int corridor) {
+        return corridorOffsets[corridor + 1] - corridorOffsets[corridor];
+    }
+
+    /** Returns the cell at the given position of the corridor: 0 is the first end, length + 1 the second. */
+    public int corridorCell(int corridor, int position) {
+        if (position == 0) {
+            return junctionCells[corridorFirst(corridor)];
+        }
+        if (position == corridorLength(corridor) + 1) {
+            return junctionCells[corridorSecond(corridor)];
+        }
+        return corridorCells[corridorOffsets[corridor] + position - 1];
+    }
+
+    /** Returns the position of the slot in its corridor, see {@link #corridorCell(int, int)}. */
+    public int positionOfSlot(int corridor, int slot) {
+        return slot - corridorOffsets[corridor] + 1;
+    }
+
+    /** Returns the cost from the first end of its corridor to the cell in the slot. */
+    public int slotCost(int slot) {
+        return slotCosts[slot];
+    }
+
+    /** Approximate heap size of the graph in bytes, the maze itself not included. */
+    public long byteSize() {
+        long ints = (long) junctionCells.length + edgeOffsets.length + 3L * edgeTargets.length
+            + corridorEnds.length + corridorCosts.length + corridorOffsets.length
+            + 2L * corridorCells.length + cellIndex.length;
+        return ints * Integer.BYTES + (long) junctionBits.length * Long.BYTES;
+    }
+
+    // Corridors collected while walking, before their sizes are known
+    private static final class Corridors {
+        private final IntList ends = new IntList();
+        private final IntList costs = new IntList();
+        private final IntList offsets = new IntList();
+        private final IntList cells = new IntList();
+        private final IntList slotCosts = new IntList();
+    }
+}
@@ -0,0 +1,106 @@
+package backend.academy;
+
+import java.util.ArrayList;
+import java.util.List;
+import static backend.academy.Utils.OUT;
+
+/**
+ * JunctionPathFinder finds the cheapest path through a maze on its corridor-contracted
+ * {@link JunctionGraph}, with A* over the junctions (see {@link JunctionSolver}). The junction
+ * graph is built once per maze snapshot and shared with every other solver of the snapshot.
+ * <p>In an unweighted maze this gives the same path length as {@link BFS}; in a weighted one
+ * the same cost as {@link DialSolver}. The lives rule of {@link AStar} is not applied.</p>
+ */
+public class JunctionPathFinder implements MazePathFinder {
+    private final AbstractGraphMaze maze;
+    private JunctionSolver solver;  // Built for the current snapshot of the maze
+    private int[] cells;            // Path buffer of the solver, reused between queries
+    private final List<Cell> path;
+    private int pathCost = JunctionSolver.NO_PATH;
+    private static final int CELL_WIDTH = 5;  // Width of each cell in the string representation
+
+    public JunctionPathFinder(AbstractGraphMaze maze) {
+        this.maze = maze;
+        this.path = new ArrayList<>();
+    }
+
+    // The maze may have been generated again since the last query
+    private JunctionSolver solver() {
+        MazeGraph graph = maze.graph();
+        if (solver == null || solver.junctions().graph() != graph) {
+            solver = new JunctionSolver(graph.junctions());
+            cells = new int[graph.cellCount()];
+        }
+        return solver;
+    }
+
+    /**
+     * Finds the cheapest path from the start cell to the goal cell.
+     */
+    @Override
+    public void findPath(int startX, int startY, int endX, int endY) {
+        try {
+            path.clear();
+            JunctionSolver junctionSolver = solver();
+            MazeGraph graph = junctionSolver.junctions().graph();
+            pathCost = junctionSolver.aStar(graph.cellId(startX, startY), graph.cellId(endX, endY));
+            if (pathCost != JunctionSolver.NO_PATH) {
+                int length = junctionSolver.path(cells);
+                for (int i = 0; i < length; i++) {
+                    path.add(Cell.ofId(cells[i], graph.width()));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            OUT.println("Error: Attempted to access an invalid index in the maze: " + e.getMessage());
+        } catch (Exception e) {
+            OUT.println("An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    /** Returns a copy of the last found path, from start to goal; empty if there is none. */
+    public List<Cell> path() {
+        return new ArrayList<>(path);
+    }
+
+    /** Returns the cost of the last found path, or {@link JunctionSolver#NO_PATH}. */
+    public int pathCost() {
+        return pathCost;
+    }
+
+    /** Returns the number of junctions the last search expanded. */
+    public int expandedJunctions() {
+        return solver == null ? 0 : solver.expandedCount();
+    }
+
+    /**
+     * Assembles the output maze with the path marked.
+     *
+     * @param outputMaze A list of strings representing the maze to be modified.
+     * @return The modified maze with the path marked.
+     */
+    public List<String> assemblePath(List<String> outputMaze) {
+        for (Cell cell : path) {
+            int rowIndex = cell.row() * 2 + 1; // Index in outputMaze
+            StringBuilder row = new StringBuilder(outputMaze.get(rowIndex));
+            int colIndex = cell.col() * CELL_WIDTH + 2; // Position in the row (considering boundaries)
+            row.setCharAt(colIndex, '•'); // Mark the path with the symbol "•"
+            outputMaze.set(rowIndex, row.toString());
+        }
+        return outputMaze;
+    }
+
+    /**
+     * Prints the maze to the console, including the path.
+     * <p>Before using it, you should first use findPath().</p>
+     *
+     * @param outputMaze A list of strings representing the maze to be printed.
+     */
+    @Override
+    public void printPath(List<String> outputMaze) {
+        List<String> mazeElements = assemblePath(outputMaze);
+        for (String element : mazeElements) {
+            OUT.println(element);
+        }
+        OUT.println();
+    }
+}
@@ -0,0 +1,237 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * JunctionSolver finds cheapest paths on a {@link JunctionGraph}: Dijkstra's algorithm, or A*
+ * with the Manhattan distance, over the junctions only, on an {@link IndexedMinHeap}.
+ * <p>A start or goal inside a corridor enters the search through the two ends of its corridor,
+ * each with the cost of the part of the corridor it walks. When both lie in the same corridor
+ * the direct way along it is a candidate too. The search stops once no open junction can
+ * give a cheaper path than the best one found.</p>
+ * <p>Costs are the same as those of {@link DialSolver}: {@code max(weight, 1)} per passage, so in
+ * an unweighted maze a cost is a number of passages. State is epoch-stamped and reused between
+ * queries; a solver is not thread-safe, create one per thread, the graph can be shared.</p>
+ */
+public final class JunctionSolver {
+    public static final int NO_PATH = -1;
+    private static final int START_JUNCTION = -1;  // Parents of the junctions the search starts from
+    private static final int START_FIRST_END = -2;
+    private static final int START_SECOND_END = -3;
+    private static final int DIRECT = -1;          // The best path stays inside one corridor
+    private static final int NONE = -2;
+
+    private final @Getter JunctionGraph junctions;
+    private final int[] costs;
+    private final int[] parentEdges;
+    private final int[] stamps;
+    private final IndexedMinHeap open;
+    private int epoch;
+    private @Getter int expandedCount;  // Junctions expanded by the last query
+    // The last query
+    private int start;
+    private int goal;
+    private int bestJunction;          // Junction the best path reaches the goal's corridor from, DIRECT or NONE
+    private boolean bestFromFirstEnd;  // Whether that junction is the first end of the goal's corridor
+
+    public JunctionSolver(JunctionGraph junctions) {
+        this.junctions = junctions;
+        int count = junctions.junctionCount();
+        this.costs = new int[count];
+        this.parentEdges = new int[count];
+        this.stamps = new int[count];
+        this.open = new IndexedMinHeap(count);
+    }
+
+    /** Returns the cost of the cheapest path between the cells, or {@link #NO_PATH}. */
+    public int dijkstra(int startCell, int goalCell) {
+        return search(startCell, goalCell, false);
+    }
+
+    /** Same as {@link #dijkstra(int, int)}, but junctions closer to the goal are expanded first. */
+    public int aStar(int startCell, int goalCell) {
+        return search(startCell, goalCell, true);
+    }
+
+    private int search(int startCell, int goalCell, boolean directed) {
+        nextEpoch();
+        open.clear();
+        expandedCount = 0;
+        start = startCell;
+        goal = goalCell;
+        bestJunction = NONE;
+        if (startCell == goalCell) {
+            bestJunction = DIRECT;
+            return 0;
+        }
+        JunctionGraph graph = junctions;
+        int best = Integer.MAX_VALUE;
+        int goalFirst = NONE;
+        int goalSecond = NONE;
+        int goalFirstCost = 0;
+        int goalSecondCost = 0;
+        if (graph.isJunction(goalCell)) {
+            goalFirst = graph.junctionOf(goalCell);
+        } else {
+            int slot = graph.slotOf(goalCell);
+            int corridor = graph.corridorOfSlot(slot);
+            goalFirst = graph.corridorFirst(corridor);
+            goalSecond = graph.corridorSecond(corridor);
+            goalFirstCost = graph.slotCost(slot);
+            goalSecondCost = graph.corridorCost(corridor) - goalFirstCost;
+            if (!graph.isJunction(startCell) && graph.corridorOfSlot(graph.slotOf(startCell)) == corridor) {
+                best = Math.abs(goalFirstCost - graph.slotCost(graph.slotOf(startCell)));
+                bestJunction = DIRECT;
+            }
+        }
+
+        if (graph.isJunction(startCell)) {
+            relax(graph.junctionOf(startCell), 0, START_JUNCTION, directed);
+        } else {
+            int slot = graph.slotOf(startCell);
+            int corridor = graph.corridorOfSlot(slot);
+            relax(graph.corridorFirst(corridor), graph.slotCost(slot), START_FIRST_END, directed);
+            relax(graph.corridorSecond(corridor), graph.corridorCost(corridor) - graph.slotCost(slot),
+                START_SECOND_END, directed);
+        }
+
+        while (!open.isEmpty() && open.key(open.peek()) < best) {
+            int junction = open.poll();
+            expandedCount++;
+            int cost = costs[junction];
+            if (junction == goalFirst && cost + goalFirstCost < best) {
+                best = cost + goalFirstCost;
+                bestJunction = junction;
+                bestFromFirstEnd = true;
+            }
+            if (junction == goalSecond && cost + goalSecondCost < best) {
+                best = cost + goalSecondCost;
+                bestJunction = junction;
+                bestFromFirstEnd = false;
+            }
+            int end = graph.edgeOffset(junction + 1);
+            for (int edge = graph.edgeOffset(junction); edge < end; edge++) {
+                relax(graph.edgeTarget(edge), cost + graph.edgeCost(edge), edge, directed);
+            }
+        }
+        return bestJunction == NONE ? NO_PATH : best;
+    }
+
+    private void relax(int junction, int cost, int parentEdge, boolean directed) {
+        if (stamps[junction] == epoch && costs[junction] <= cost) {
+            return;
+        }
+        stamps[junction] = epoch;
+        costs[junction] = cost;
+        parentEdges[junction] = parentEdge;
+        open.insertOrDecrease(junction, cost + (directed ? heuristic(junction) : 0));
+    }
+
+    private int heuristic(int junction) {
+        MazeGraph maze = junctions.graph();
+        int cell = junctions.junctionCell(junction);
+        return Math.abs(maze.row(cell) - maze.row(goal)) + Math.abs(maze.col(cell) - maze.col(goal));
+    }
+
+    /**
+     * Writes the path found by the last query, from its start to its goal, into the buffer.
+     *
+     * @param buffer array with room for the whole path, {@link MazeGraph#cellCount()} is always enough
+     * @return the number of cells written, or 0 if the last query found no path
+     */
+    public int path(int[] buffer) {
+        if (bestJunction == NONE) {
+            return 0;
+        }
+        JunctionGraph graph = junctions;
+        int length = 0;
+        // Collected from the goal back to the start, then reversed
+        if (bestJunction == DIRECT) {
+            if (start == goal) {
+                buffer[0] = start;
+                return 1;
+            }
+            int corridor = graph.corridorOfSlot(graph.slotOf(goal));
+            int from = graph.positionOfSlot(corridor, graph.slotOf(goal));
+            int to = graph.positionOfSlot(corridor, graph.slotOf(start));
+            int step = from < to ? 1 : -1;
+            for (int position = from; position != to + step; position += step) {
+                buffer[length++] = graph.corridorCell(corridor, position);
+            }
+            reverse(buffer, length);
+            return length;
+        }
+        if (!graph.isJunction(goal)) {
+            int corridor = graph.corridorOfSlot(graph.slotOf(goal));
+            int position = graph.positionOfSlot(corridor, graph.slotOf(goal));
+            int step = bestFromFirstEnd ? -1 : 1;
+            int end = bestFromFirstEnd ? 0 : graph.corridorLength(corridor) + 1;
+            for (; position != end; position += step) {
+                buffer[length++] = graph.corridorCell(corridor, position);
+            }
+        }
+        int junction = bestJunction;
+        while (true) {
+            buffer[length++] = graph.junctionCell(junction);
+            int edge = parentEdges[junction];
+            if (edge < 0) {
+                length = appendStart(buffer, length, edge);
+                break;
+            }
+            // The edge was walked towards this junction; walk its corridor back
+            int corridor = graph.edgeCorridor(edge);
+            int inner = graph.corridorLength(corridor);
+            if (graph.isEdgeReversed(edge)) {
+                for (int position = 1; position <= inner; position++) {
+                    buffer[length++] = graph.corridorCell(corridor, position);
+                }
+                junction = graph.corridorSecond(corridor);
+            } else {
+                for (int position = inner; position >= 1; position--) {
+                    buffer[length++] = graph.corridorCell(corridor, position);
+                }
+                junction = graph.corridorFirst(corridor);
+            }
+        }
+        reverse(buffer, length);
+        return length;
+    }
+
+    // Adds the part of the start corridor between the first junction of the path and the start
+    private int appendStart(int[] buffer, int length, int startParent) {
+        if (startParent == START_JUNCTION) {
+            return length;
+        }
+        JunctionGraph graph = junctions;
+        int corridor = graph.corridorOfSlot(graph.slotOf(start));
+        int target = graph.positionOfSlot(corridor, graph.slotOf(start));
+        int result = length;
+        if (startParent == START_FIRST_END) {
+            for (int position = 1; position <= target; position++) {
+                buffer[result++] = graph.corridorCell(corridor, position);
+            }
+        } else {
+            for (int position = graph.corridorLength(corridor); position >= target; position--) {
+                buffer[result++] = graph.corridorCell(corridor, position);
+            }
+        }
+        return result;
+    }
+
+    private static void reverse(int[] buffer, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int cell = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = cell;
+        }
+    }
+
+    private void nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0); // Once in two billion queries
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
@@ -1,22 +1,34 @@
 package backend.academy;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * KruskalMaze implements the CreateGraphShortCycle interface to generate mazes
  * based on Kruskal's algorithm. This class ensures that it avoids creating
  * short cycles, thereby generating multiple paths while maintaining the integrity
  * of the maze structure.
+ * <p>Candidate passages are encoded as ints ({@code cellId << 1 | direction bit},
+ * where the bit is 0 for east and 1 for south) and shuffled in place, so generation
+ * does not allocate an object per passage. The result for a given seed is the same as
+ * shuffling the passages as a list with {@link java.util.Collections#shuffle(java.util.List, java.util.Random)}
+ * over the same {@link MazeRandom}.</p>
  * <p>This algorithm is designed for weighted graphs.</p>
  */
 public final class KruskalMaze extends AbstractGraphMaze implements CreateGraphShortCycle {
+    private static final int[] POSSIBLE_WEIGHTS = {LOW_WEIGHT, DEFAULT_WEIGHT, HIGH_WEIGHT};
+
     private final int[] parent;  // Flattened parent array for union-find
     private final int[] rank;    // Flattened rank array for union-find
 
     public KruskalMaze(int width, int height) {
-        super(width, height, true);
+        this(width, height, MazeRandom.fromConfiguration());
+    }
+
+    /** Creates the maze that is generated the same way every time for the same seed. */
+    public KruskalMaze(int width, int height, long seed) {
+        this(width, height, MazeRandom.ofSeed(seed));
+    }
+
+    public KruskalMaze(int width, int height, MazeRandom random) {
+        super(width, height, true, random);
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("Width and height must be positive values.");
         }
@@ -31,66 +43,102 @@ public final class KruskalMaze extends AbstractGraphMaze implements CreateGraphS
         }
     }
 
+    // Iterative find with path halving: every visited node is linked to its grandparent
     private int find(int index) {
-        if (parent[index] != index) {
-            parent[index] = find(parent[index]);  // Path compression
+        int current = index;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
         }
-        return parent[index];
+        return current;
     }
 
-    private void union(int index1, int index2) {
-        int root1 = find(index1);
-        int root2 = find(index2);
-
-        if (root1 != root2) {
-            // Union by rank
-            if (rank[root1] > rank[root2]) {
-                parent[root2] = root1;
-            } else if (rank[root1] < rank[root2]) {
-                parent[root1] = root2;
-            } else {
-                parent[root2] = root1;
-                rank[root1]++;
-            }
+    private void union(int root1, int root2) {
+        // Union by rank
+        if (rank[root1] > rank[root2]) {
+            parent[root2] = root1;
+        } else if (rank[root1] < rank[root2]) {
+            parent[root1] = root2;
+        } else {
+            parent[root2] = root1;
+            rank[root1]++;
         }
     }
 
     @Override
     public void generateMaze() {
-        mazeEdges().clear();
+        clearMazeEdges();
         initializeSets();
 
-        List<Edge> edges = super.edges();
-        List<Edge> skippedEdges = new ArrayList<>();
-        Collections.shuffle(edges);
-
-        // Main path generation
-        for (Edge edge : edges) {
-            Cell cell1 = edge.cell1();
-            Cell cell2 = edge.cell2();
-
-            int index1 = cell1.row() * super.width() + cell1.col();
-            int index2 = cell2.row() * super.width() + cell2.col();
+        // All inner walls row by row, the east wall of a cell before its south wall
+        int width = super.width();
+        int cells = parent.length;
+        int[] candidates = new int[(width - 1) * super.height() + width * (super.height() - 1)];
+        byte[] weights = new byte[2 * cells];
+        int candidateCount = 0;
+        for (int cellId = 0; cellId < cells; cellId++) {
+            if (cellId % width < width - 1) {
+                candidates[candidateCount++] = cellId << 1;
+            }
+            if (cellId < cells - width) {
+                candidates[candidateCount++] = cellId << 1 | 1;
+            }
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            weights[candidates[i]] = (byte) POSSIBLE_WEIGHTS[random().nextInt(POSSIBLE_WEIGHTS.length)];
+        }
+        shuffle(candidates, candidateCount);
 
-            if (find(index1) != find(index2)) {
-                union(index1, index2);
-                super.addMazeEdge(edge);  // Add edge to the maze (remove the wall)
+        // Main path generation, skipped walls are collected at the front of the same array
+        int skippedCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int candidate = candidates[i];
+            int root1 = find(candidate >>> 1);
+            int root2 = find(otherCell(candidate));
+            if (root1 != root2) {
+                union(root1, root2);
+                carve(candidate, weights);  // Remove the wall
             } else {
-                skippedEdges.add(edge);
+                candidates[skippedCount++] = candidate;
             }
         }
 
         // Adding extra edges to avoid short cycles
-        Collections.shuffle(skippedEdges);
+        shuffle(candidates, skippedCount);
+        SpanningTreeIndex tree = new SpanningTreeIndex(grid());
+        int[] extraEdges = new int[2 * MIN_CYCLE_LENGTH];
         int addedEdges = 0;
-        for (Edge edge : skippedEdges) {
-            if (addedEdges >= MIN_CYCLE_LENGTH) {
-                break;
-            }
-            if (!createsShortCycle(edge, mazeEdges())) {
-                super.addMazeEdge(edge);
+        for (int i = 0; i < skippedCount && addedEdges < MIN_CYCLE_LENGTH; i++) {
+            int candidate = candidates[i];
+            int cell1 = candidate >>> 1;
+            int cell2 = otherCell(candidate);
+            if (!createsShortCycle(cell1, cell2, tree, extraEdges, addedEdges)) {
+                carve(candidate, weights);
+                extraEdges[2 * addedEdges] = cell1;
+                extraEdges[2 * addedEdges + 1] = cell2;
                 addedEdges++;
             }
         }
     }
+
+    // In-place Fisher-Yates over the first count elements, in the order Collections.shuffle() uses
+    private void shuffle(int[] values, int count) {
+        for (int i = count; i > 1; i--) {
+            int j = random().nextInt(i);
+            int value = values[i - 1];
+            values[i - 1] = values[j];
+            values[j] = value;
+        }
+    }
+
+    private int otherCell(int candidate) {
+        int cellId = candidate >>> 1;
+        return (candidate & 1) == 0 ? cellId + 1 : cellId + super.width();
+    }
+
+    // Opens the wall of the candidate on the grid directly, without telling the change listeners
+    private void carve(int candidate, byte[] weights) {
+        Direction direction = (candidate & 1) == 0 ? Direction.EAST : Direction.SOUTH;
+        grid().open(candidate >>> 1, direction, weights[candidate]);
+    }
 }
@@ -0,0 +1,107 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Landmarks is the ALT heuristic (A*, landmarks, triangle inequality) for one maze.
+ * <p>A few landmark cells are chosen, and the cost from every landmark to every cell is
+ * computed once. For any landmark L the triangle inequality gives
+ * {@code cost(cell, goal) >= |cost(L, goal) - cost(L, cell)|}, and the estimate is the largest
+ * of these bounds and the Manhattan distance. Corridors of a maze make the Manhattan distance
+ * far too low, while a landmark behind the goal gives a bound close to the real cost, so A*
+ * expands far fewer cells.</p>
+ * <p>Landmarks are chosen by farthest-point selection: each next landmark is the cell whose
+ * cost to the nearest chosen landmark is the largest. Costs are those of a {@link DistanceField},
+ * {@code max(weight, 1)} per passage, which are the costs of {@link AStar} on weighted mazes.
+ * They are kept in one flat {@code int[]} with the costs of a cell next to each other, so an
+ * estimate reads two short runs of memory; {@code 4 * count} bytes per cell in total.</p>
+ * <p>The landmarks belong to one maze snapshot and are immutable, they can be shared by threads.</p>
+ */
+public final class Landmarks implements Heuristic {
+    private final @Getter MazeGraph graph;
+    private final int[] landmarkCells;
+    private final int[] costs;  // costs[cell * count + i] is the cost between the cell and landmark i
+
+    public Landmarks(MazeGraph graph, int count) {
+        if (count < 1 || count > graph.cellCount()) {
+            throw new IllegalArgumentException("Landmark count must be between 1 and "
+                + graph.cellCount() + ": " + count);
+        }
+        this.graph = graph;
+        this.landmarkCells = new int[count];
+        this.costs = new int[graph.cellCount() * count];
+
+        // The first landmark is the cell farthest from cell 0, then always the one farthest from all chosen.
+        // Cell 0 itself is no landmark, so its costs must not count as the nearest ones.
+        int next = farthestFrom(new DistanceField(graph, 0));
+        int[] nearest = new int[graph.cellCount()];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            landmarkCells[i] = next;
+            DistanceField field = new DistanceField(graph, next);
+            for (int cell = 0; cell < graph.cellCount(); cell++) {
+                costs[cell * count + i] = field.distance(cell);
+            }
+            next = farthest(field, nearest);
+        }
+    }
+
+    // Returns the reachable cell with the largest cost in the field
+    private int farthestFrom(DistanceField field) {
+        int farthest = field.goal();
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            if (field.isReachable(cell) && field.distance(cell) > field.distance(farthest)) {
+                farthest = cell;
+            }
+        }
+        return farthest;
+    }
+
+    // Lowers the cost to the nearest landmark by the new field and returns the cell where it is largest
+    private int farthest(DistanceField field, int[] nearest) {
+        int farthest = field.goal();
+        int farthestCost = -1;
+        for (int cell = 0; cell < nearest.length; cell++) {
+            if (field.isReachable(cell)) {
+                nearest[cell] = Math.min(nearest[cell], field.distance(cell));
+                if (nearest[cell] > farthestCost && nearest[cell] != Integer.MAX_VALUE) {
+                    farthestCost = nearest[cell];
+                    farthest = cell;
+                }
+            }
+        }
+        return farthest;
+    }
+
+    public int count() {
+        return landmarkCells.length;
+    }
+
+    public int landmark(int index) {
+        return landmarkCells[index];
+    }
+
+    /**
+     * Returns the ALT lower bound of the cost between the cells.
+     *
+     * @throws IllegalStateException if the graph is not the one the landmarks were computed for
+     */
+    @Override
+    public int estimate(MazeGraph mazeGraph, int cell, int goal) {
+        if (mazeGraph != graph) {
+            throw new IllegalStateException("Landmarks were computed for another maze.");
+        }
+        int count = landmarkCells.length;
+        int best = MANHATTAN.estimate(graph, cell, goal);
+        for (int i = 0, cellBase = cell * count, goalBase = goal * count; i < count; i++) {
+            int fromCell = costs[cellBase + i];
+            int fromGoal = costs[goalBase + i];
+            // A landmark in another part of a disconnected maze tells nothing
+            if (fromCell != DistanceField.UNREACHABLE && fromGoal != DistanceField.UNREACHABLE) {
+                best = Math.max(best, Math.abs(fromCell - fromGoal));
+            }
+        }
+        return best;
+    }
+}
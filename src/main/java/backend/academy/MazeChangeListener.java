@@ -0,0 +1,15 @@
+package backend.academy;
+
+/**
+ * Receives the changes made to a maze after it was generated, see
+ * {@link AbstractGraphMaze#openPassage(int, int, Direction, int)}.
+ * <p>Listeners are called on the thread that changes the maze, after the change is made.</p>
+ */
+@FunctionalInterface
+public interface MazeChangeListener {
+    void passageChanged(PassageChange change);
+
+    /** Called when every wall is put back before the maze is generated again; no passage events follow. */
+    default void mazeCleared() {
+    }
+}
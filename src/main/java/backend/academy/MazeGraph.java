@@ -0,0 +1,156 @@
+package backend.academy;
+
+import lombok.Getter;
+
+/**
+ * MazeGraph is a frozen, immutable snapshot of a generated maze.
+ * It is built once from a {@link WallGrid} and can then be shared by any number of
+ * solvers and threads without copying or locking.
+ * <p>The adjacency index keeps one {@code char} per cell: the low four bits tell which of the
+ * north, east, south and west passages are open, the next eight bits hold their weights
+ * (two bits each). Expanding a cell is therefore a single array read.</p>
+ * <p>The {@link #fingerprint()} is a 64-bit hash of the size and the passages, so results
+ * computed on one snapshot can be reused for any equal maze, e.g. by a {@link PathCache}.</p>
+ */
+public final class MazeGraph {
+    private static final int WEIGHT_SHIFT = 4;
+    private static final int WEIGHT_BITS = 2;
+    private static final int WEIGHT_MASK = 0b11;
+    private static final int OPEN_MASK = 0b1111;  // One bit per direction
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final @Getter int width;
+    private final @Getter int height;
+    private final @Getter int cellCount;
+    private final @Getter int passageCount;
+    private final @Getter boolean weighted;
+    private final @Getter long fingerprint;
+    private final char[] adjacency;
+    private volatile CsrAdjacency csr;  // Built on first use; any thread may build it, the result is the same
+    private volatile JunctionGraph junctions;  // Same as csr
+
+    MazeGraph(WallGrid grid) {
+        this.width = grid.width();
+        this.height = grid.height();
+        this.cellCount = grid.cellCount();
+        this.passageCount = grid.passageCount();
+        this.adjacency = new char[cellCount];
+        boolean hasWeights = false;
+        for (int cellId = 0; cellId < cellCount; cellId++) {
+            int entry = 0;
+            for (Direction direction : Direction.values()) {
+                if (grid.isOpen(cellId, direction)) {
+                    int weight = grid.weight(cellId, direction);
+                    entry |= 1 << direction.ordinal() | weight << weightShift(direction);
+                    hasWeights |= weight != 0;
+                }
+            }
+            adjacency[cellId] = (char) entry;
+        }
+        this.weighted = hasWeights;
+        this.fingerprint = fingerprint(width, height, adjacency);
+    }
+
+    // FNV-1a over the size and the adjacency entries, one char at a time
+    private static long fingerprint(int width, int height, char[] adjacency) {
+        long hash = (FNV_OFFSET ^ width) * FNV_PRIME;
+        hash = (hash ^ height) * FNV_PRIME;
+        for (char entry : adjacency) {
+            hash = (hash ^ entry) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the compressed sparse row index of the maze, building it on the first call.
+     * Weighted solvers should iterate it instead of expanding cells one direction at a time.
+     */
+    public CsrAdjacency csr() {
+        CsrAdjacency result = csr;
+        if (result == null) {
+            result = new CsrAdjacency(this);
+            csr = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the maze with its corridors contracted, building it on the first call,
+     * so every solver of this snapshot shares one {@link JunctionGraph}.
+     */
+    public JunctionGraph junctions() {
+        JunctionGraph result = junctions;
+        if (result == null) {
+            result = new JunctionGraph(this);
+            junctions = result;
+        }
+        return result;
+    }
+
+    private static int weightShift(Direction direction) {
+        return WEIGHT_SHIFT + direction.ordinal() * WEIGHT_BITS;
+    }
+
+    public int cellId(int row, int col) {
+        return row * width + col;
+    }
+
+    public int row(int cellId) {
+        return cellId / width;
+    }
+
+    public int col(int cellId) {
+        return cellId % width;
+    }
+
+    public boolean isOpen(int cellId, Direction direction) {
+        return (adjacency[cellId] & 1 << direction.ordinal()) != 0;
+    }
+
+    /** Returns the weight of the passage, or 0 if the passage is closed or has no weight. */
+    public int weight(int cellId, Direction direction) {
+        return adjacency[cellId] >>> weightShift(direction) & WEIGHT_MASK;
+    }
+
+    /** Returns the number of open passages of the cell. */
+    public int degree(int cellId) {
+        return Integer.bitCount(adjacency[cellId] & OPEN_MASK);
+    }
+
+    /**
+     * Writes the ids of the cells reachable from the given cell in one step into the buffer,
+     * in the order north, east, south, west.
+     *
+     * @param buffer array with room for at least {@link WallGrid#MAX_NEIGHBORS} ids
+     * @return the number of neighbours written
+     */
+    public int neighbors(int cellId, int[] buffer) {
+        return neighbors(cellId, buffer, null);
+    }
+
+    /**
+     * Same as {@link #neighbors(int, int[])}, but also writes the weight of every passage.
+     *
+     * @param weightBuffer array receiving the weight of the passage to {@code buffer[i]}, may be null
+     */
+    public int neighbors(int cellId, int[] buffer, int[] weightBuffer) {
+        int entry = adjacency[cellId];
+        int count = addIfOpen(entry, Direction.NORTH, cellId - width, buffer, weightBuffer, 0);
+        count = addIfOpen(entry, Direction.EAST, cellId + 1, buffer, weightBuffer, count);
+        count = addIfOpen(entry, Direction.SOUTH, cellId + width, buffer, weightBuffer, count);
+        return addIfOpen(entry, Direction.WEST, cellId - 1, buffer, weightBuffer, count);
+    }
+
+    private static int addIfOpen(int entry, Direction direction, int target,
+        int[] buffer, int[] weightBuffer, int count) {
+        if ((entry & 1 << direction.ordinal()) == 0) {
+            return count;
+        }
+        buffer[count] = target;
+        if (weightBuffer != null) {
+            weightBuffer[count] = entry >>> weightShift(direction) & WEIGHT_MASK;
+        }
+        return count + 1;
+    }
+}
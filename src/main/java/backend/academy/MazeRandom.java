@@ -0,0 +1,73 @@
+package backend.academy;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * MazeRandom is the source of randomness for every maze generator.
+ * It wraps a fast splittable generator (L64X128MixRandom), so the same seed always
+ * produces the same maze, and parallel work can take independent streams with split().
+ * <p>An instance is not thread-safe: give every thread or tile its own split().</p>
+ * <p>The seed can be fixed from the outside with the {@value #SEED_PROPERTY} system property,
+ * for example {@code -Dmaze.seed=42}, to reproduce a maze.</p>
+ */
+public final class MazeRandom implements RandomGenerator {
+    public static final String SEED_PROPERTY = "maze.seed";
+    private static final String ALGORITHM = "L64X128MixRandom";
+
+    private final SplittableGenerator generator;
+
+    private MazeRandom(SplittableGenerator generator) {
+        this.generator = generator;
+    }
+
+    public static MazeRandom ofSeed(long seed) {
+        return new MazeRandom(RandomGeneratorFactory.<SplittableGenerator>of(ALGORITHM).create(seed));
+    }
+
+    /** Creates a generator with a random seed. */
+    public static MazeRandom unseeded() {
+        return new MazeRandom(RandomGeneratorFactory.<SplittableGenerator>of(ALGORITHM).create());
+    }
+
+    /**
+     * Creates a generator seeded from the {@value #SEED_PROPERTY} system property,
+     * or with a random seed if the property is not set.
+     *
+     * @throws IllegalArgumentException if the property is not a number
+     */
+    public static MazeRandom fromConfiguration() {
+        String seed = System.getProperty(SEED_PROPERTY);
+        if (seed == null || seed.isBlank()) {
+            return unseeded();
+        }
+        try {
+            return ofSeed(Long.parseLong(seed.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + SEED_PROPERTY + " must be a number: " + seed, e);
+        }
+    }
+
+    /**
+     * Returns a new generator with its own stream of values. The stream depends only on the
+     * state of this generator, so splitting a seeded generator is reproducible too.
+     */
+    public MazeRandom split() {
+        return new MazeRandom(generator.split());
+    }
+
+    @Override
+    public long nextLong() {
+        return generator.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return generator.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return generator.nextInt(bound);
+    }
+}
@@ -0,0 +1,50 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * MazeRow is one finished row of a streamed maze: which cells have a passage to the east
+ * and which have a passage to the south. The north and west passages of a cell are the
+ * south passages of the previous row and the east passage of its left neighbour.
+ * <p>Both sets are bitsets, so a row of width {@code w} takes about {@code w / 4} bytes.</p>
+ */
+public final class MazeRow {
+    private static final int WORD_SHIFT = 6;  // log2(Long.SIZE)
+
+    private final @Getter int width;
+    private final long[] east;
+    private final long[] south;
+    private @Getter int index;
+    private @Getter boolean last;
+
+    MazeRow(int width) {
+        this.width = width;
+        this.east = new long[(width + Long.SIZE - 1) >>> WORD_SHIFT];
+        this.south = new long[east.length];
+    }
+
+    public boolean isEastOpen(int col) {
+        return (east[col >>> WORD_SHIFT] & 1L << col) != 0;
+    }
+
+    public boolean isSouthOpen(int col) {
+        return (south[col >>> WORD_SHIFT] & 1L << col) != 0;
+    }
+
+    // Starts the next row with every wall standing
+    void reset(int rowIndex, boolean lastRow) {
+        Arrays.fill(east, 0L);
+        Arrays.fill(south, 0L);
+        this.index = rowIndex;
+        this.last = lastRow;
+    }
+
+    void openEast(int col) {
+        east[col >>> WORD_SHIFT] |= 1L << col;
+    }
+
+    void openSouth(int col) {
+        south[col >>> WORD_SHIFT] |= 1L << col;
+    }
+}
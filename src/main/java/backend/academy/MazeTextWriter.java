@@ -0,0 +1,57 @@
+package backend.academy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import static backend.academy.AbstractGraphMaze.DEFAULT_SYMBOL;
+import static backend.academy.AbstractGraphMaze.HORIZONTAL_BORDER_SYMBOL;
+import static backend.academy.AbstractGraphMaze.NODE_SYMBOL;
+
+/**
+ * MazeTextWriter is a {@link RowSink} that draws streamed rows as text, in the same
+ * format as {@link AbstractGraphMaze#assembleMaze()}, and writes them straight to the output.
+ * Only the lines of the current row are kept in memory.
+ * <p>Pass a buffered writer when writing to a file; I/O errors are rethrown as
+ * {@link UncheckedIOException}.</p>
+ */
+public final class MazeTextWriter implements RowSink {
+    private final Appendable out;
+    private final StringBuilder line = new StringBuilder();
+
+    public MazeTextWriter(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public void acceptRow(MazeRow row) {
+        try {
+            if (row.index() == 0) {
+                line.setLength(0);
+                for (int col = 0; col < row.width(); col++) {
+                    line.append(NODE_SYMBOL).append(HORIZONTAL_BORDER_SYMBOL);
+                }
+                writeLine();
+            }
+
+            line.setLength(0);
+            line.append('│');
+            for (int col = 0; col < row.width(); col++) {
+                line.append(DEFAULT_SYMBOL).append(row.isEastOpen(col) ? ' ' : '|');
+            }
+            out.append(line).append(System.lineSeparator());
+
+            line.setLength(0);
+            for (int col = 0; col < row.width(); col++) {
+                line.append(NODE_SYMBOL).append(row.isSouthOpen(col) ? DEFAULT_SYMBOL : HORIZONTAL_BORDER_SYMBOL);
+            }
+            writeLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the maze.", e);
+        }
+    }
+
+    // Closes a line of wall nodes with the last node
+    private void writeLine() throws IOException {
+        line.append(NODE_SYMBOL);
+        out.append(line).append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,283 @@
+package backend.academy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.Getter;
+
+/**
+ * ParallelBfs computes the distance from one source cell to every cell of a very large maze,
+ * expanding each level of the breadth-first search on the workers of a {@link ForkJoinPool}.
+ * <p>Large frontiers are {@code long[]} bitsets, one bit per cell, and every level is split
+ * between tasks by ranges of words. A level is expanded in one of two ways:</p>
+ * <ul>
+ *     <li>top-down: every frontier cell looks at its neighbours; an unvisited neighbour is claimed
+ *     by an atomic OR on the visited bitset, so exactly one task becomes its parent;</li>
+ *     <li>bottom-up: every unvisited cell looks for a neighbour in the frontier. A task only
+ *     writes the words of its own cells, so no atomics are needed.</li>
+ * </ul>
+ * <p>The search switches to bottom-up when the frontier is large compared to the unvisited
+ * cells, and back when the frontier shrinks. A dense level always scans every word, so small
+ * frontiers are kept as a plain list of cells and expanded on the calling thread instead. In
+ * two-dimensional mazes the frontier rarely grows to a large share of the cells, so most
+ * levels stay sparse; the dense modes pay off on open areas and mazes with many cycles.</p>
+ * <p>All state is reused between runs. An instance is not thread-safe, the graph can be shared.</p>
+ */
+public final class ParallelBfs {
+    public static final int UNREACHED = -1;
+    public static final int NO_PARENT = -1;
+    private static final int WORD_SHIFT = 6;  // log2(Long.SIZE)
+    private static final int MIN_DENSE_FRONTIER = 1 << 10;
+    private static final int WORDS_PER_TASK = 1 << 10;  // 65536 cells
+    private static final int ALPHA = 14;  // Bottom-up once the frontier exceeds unvisited / ALPHA
+    private static final int BETA = 24;   // Top-down again once the frontier is below cells / BETA
+    private static final int BRANCHING = WallGrid.MAX_NEIGHBORS;  // New cells per sparse frontier cell, at most
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final @Getter MazeGraph graph;
+    private final ForkJoinPool pool;
+    private final int denseThreshold;  // Frontiers larger than this are bitsets
+    private final int wordCount;
+    private final int[] distances;
+    private final int[] parents;
+    private final long[] visited;
+    private long[] frontierBits;
+    private long[] nextBits;
+    private int[] frontierCells;
+    private int[] nextCells;
+    private @Getter int reachedCount;    // Cells reached by the last run, the source included
+    private @Getter int eccentricity;    // Largest distance from the source found by the last run
+    private @Getter int bottomUpLevels;  // Levels of the last run expanded bottom-up
+
+    public ParallelBfs(MazeGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBfs(MazeGraph graph, ForkJoinPool pool) {
+        this(graph, pool, Math.max(MIN_DENSE_FRONTIER, wordCount(graph) / pool.getParallelism()));
+    }
+
+    /**
+     * @param denseThreshold frontiers with more cells than this are bitsets. A dense level costs a scan
+     *                       of all words split between the workers, a sparse one only the frontier itself.
+     */
+    public ParallelBfs(MazeGraph graph, ForkJoinPool pool, int denseThreshold) {
+        if (denseThreshold < 0) {
+            throw new IllegalArgumentException("Dense threshold must not be negative: " + denseThreshold);
+        }
+        this.graph = graph;
+        this.pool = pool;
+        this.denseThreshold = denseThreshold;
+        this.wordCount = wordCount(graph);
+        this.distances = new int[graph.cellCount()];
+        this.parents = new int[graph.cellCount()];
+        this.visited = new long[wordCount];
+        this.frontierBits = new long[wordCount];
+        this.nextBits = new long[wordCount];
+        int listCapacity = (int) Math.min(graph.cellCount(), (long) Math.max(denseThreshold, 1) * BRANCHING);
+        this.frontierCells = new int[listCapacity];
+        this.nextCells = new int[listCapacity];
+    }
+
+    private static int wordCount(MazeGraph graph) {
+        return (graph.cellCount() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /** Computes the distances and parents of all cells reachable from the source. */
+    public void run(int source) {
+        if (source < 0 || source >= graph.cellCount()) {
+            throw new IllegalArgumentException("Cell " + source + " is outside the maze.");
+        }
+        reset();
+        visited[source >>> WORD_SHIFT] |= 1L << source;
+        distances[source] = 0;
+        frontierCells[0] = source;
+        reachedCount = 1;
+
+        int frontierSize = 1;
+        boolean dense = false;
+        boolean bottomUp = false;
+        for (int level = 0; frontierSize > 0; level++) {
+            int found;
+            if (dense) {
+                if (!bottomUp && frontierSize > (graph.cellCount() - reachedCount) / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < graph.cellCount() / BETA) {
+                    bottomUp = false;
+                }
+                found = pool.invoke(new Level(level, bottomUp, 0, wordCount));
+                bottomUpLevels += bottomUp ? 1 : 0;
+            } else {
+                found = expandSparse(level, frontierSize);
+            }
+            reachedCount += found;
+            if (found > 0) {
+                eccentricity = level + 1;
+            }
+            boolean nextDense = found > denseThreshold;
+            swapFrontiers(dense, nextDense, found);
+            dense = nextDense;
+            bottomUp &= dense;
+            frontierSize = found;
+        }
+    }
+
+    private void reset() {
+        Arrays.fill(distances, UNREACHED);
+        Arrays.fill(parents, NO_PARENT);
+        Arrays.fill(visited, 0L);
+        Arrays.fill(frontierBits, 0L);
+        Arrays.fill(nextBits, 0L);
+        int tail = graph.cellCount() % Long.SIZE;
+        if (tail != 0) {
+            visited[wordCount - 1] = -1L << tail; // Bits past the last cell are never unvisited
+        }
+        reachedCount = 0;
+        eccentricity = 0;
+        bottomUpLevels = 0;
+    }
+
+    // A level with a small frontier, on the calling thread
+    private int expandSparse(int level, int frontierSize) {
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int found = 0;
+        for (int i = 0; i < frontierSize; i++) {
+            int cell = frontierCells[i];
+            int count = graph.neighbors(cell, neighbors);
+            for (int j = 0; j < count; j++) {
+                int neighbor = neighbors[j];
+                int word = neighbor >>> WORD_SHIFT;
+                if ((visited[word] & 1L << neighbor) == 0) {
+                    visited[word] |= 1L << neighbor;
+                    parents[neighbor] = cell;
+                    distances[neighbor] = level + 1;
+                    nextCells[found++] = neighbor;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Makes the cells found by the last level the frontier, in the representation chosen for it
+    private void swapFrontiers(boolean dense, boolean nextDense, int found) {
+        if (dense && nextDense) {
+            long[] bits = frontierBits;
+            frontierBits = nextBits;
+            nextBits = bits;
+            Arrays.fill(nextBits, 0L);
+        } else if (dense) {
+            int size = 0;
+            for (int word = 0; word < wordCount; word++) {
+                for (long bits = nextBits[word]; bits != 0; bits &= bits - 1) {
+                    frontierCells[size++] = word << WORD_SHIFT | Long.numberOfTrailingZeros(bits);
+                }
+            }
+            Arrays.fill(frontierBits, 0L);
+            Arrays.fill(nextBits, 0L);
+        } else if (nextDense) {
+            for (int i = 0; i < found; i++) {
+                frontierBits[nextCells[i] >>> WORD_SHIFT] |= 1L << nextCells[i];
+            }
+        } else {
+            int[] cells = frontierCells;
+            frontierCells = nextCells;
+            nextCells = cells;
+        }
+    }
+
+    /** Returns the number of passages between the source of the last run and the cell, or {@link #UNREACHED}. */
+    public int distance(int cellId) {
+        return distances[cellId];
+    }
+
+    public boolean isReached(int cellId) {
+        return distances[cellId] != UNREACHED;
+    }
+
+    /** Returns the cell the last run came from, or {@link #NO_PARENT} for the source and unreached cells. */
+    public int parent(int cellId) {
+        return parents[cellId];
+    }
+
+    // Expands one dense level over the words [from, to) and returns the number of cells found
+    @SuppressWarnings("serial")
+    private final class Level extends RecursiveTask<Integer> {
+        private final int level;
+        private final boolean bottomUp;
+        private final int from;
+        private final int to;
+
+        Level(int level, boolean bottomUp, int from, int to) {
+            this.level = level;
+            this.bottomUp = bottomUp;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > WORDS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                Level left = new Level(level, bottomUp, from, middle);
+                left.fork();
+                int right = new Level(level, bottomUp, middle, to).compute();
+                return right + left.join();
+            }
+            return bottomUp ? bottomUp() : topDown();
+        }
+
+        private int topDown() {
+            int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+            int found = 0;
+            for (int word = from; word < to; word++) {
+                for (long bits = frontierBits[word]; bits != 0; bits &= bits - 1) {
+                    int cell = word << WORD_SHIFT | Long.numberOfTrailingZeros(bits);
+                    int count = graph.neighbors(cell, neighbors);
+                    for (int i = 0; i < count; i++) {
+                        int neighbor = neighbors[i];
+                        int neighborWord = neighbor >>> WORD_SHIFT;
+                        long bit = 1L << neighbor;
+                        // A stale plain read only costs a failed claim; the atomic OR decides the owner
+                        if ((visited[neighborWord] & bit) == 0
+                            && ((long) WORDS.getAndBitwiseOr(visited, neighborWord, bit) & bit) == 0) {
+                            parents[neighbor] = cell;
+                            distances[neighbor] = level + 1;
+                            WORDS.getAndBitwiseOr(nextBits, neighborWord, bit);
+                            found++;
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+
+        private int bottomUp() {
+            int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+            int found = 0;
+            for (int word = from; word < to; word++) {
+                long discovered = 0;
+                for (long bits = ~visited[word]; bits != 0; bits &= bits - 1) {
+                    int cell = word << WORD_SHIFT | Long.numberOfTrailingZeros(bits);
+                    int count = graph.neighbors(cell, neighbors);
+                    for (int i = 0; i < count; i++) {
+                        int neighbor = neighbors[i];
+                        if ((frontierBits[neighbor >>> WORD_SHIFT] & 1L << neighbor) != 0) {
+                            parents[cell] = neighbor;
+                            distances[cell] = level + 1;
+                            discovered |= 1L << cell;
+                            break;
+                        }
+                    }
+                }
+                if (discovered != 0) {
+                    visited[word] |= discovered;
+                    nextBits[word] = discovered;
+                    found += Long.bitCount(discovered);
+                }
+            }
+            return found;
+        }
+    }
+}
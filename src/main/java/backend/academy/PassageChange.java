@@ -0,0 +1,19 @@
+package backend.academy;
+
+/**
+ * A passage of a maze that was opened, closed or given another weight at runtime.
+ * The passage leads from the cell (its primitive id, row * width + col) in the direction.
+ */
+public record PassageChange(int cellId, Direction direction, boolean wasOpen, int previousWeight,
+                            boolean open, int weight) {
+
+    // Cost of the passage before the change for solvers that charge max(weight, 1), or -1 if it was closed
+    public int previousCost() {
+        return wasOpen ? Math.max(previousWeight, 1) : -1;
+    }
+
+    // Cost of the passage after the change, or -1 if it is closed now
+    public int cost() {
+        return open ? Math.max(weight, 1) : -1;
+    }
+}
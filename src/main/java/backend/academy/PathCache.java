@@ -0,0 +1,74 @@
+package backend.academy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * PathCache keeps solved paths in memory, so repeated queries for the same start and goal
+ * on the same maze are answered without searching again.
+ * <p>Entries are keyed by the kind of solver, the {@link MazeGraph#fingerprint()} of the maze
+ * and the two cells: a maze generated again with the same passages hits the same entries. Paths are stored as
+ * {@link EncodedPath}, and the cache is bounded by the approximate number of bytes they take,
+ * so a few long paths do not count the same as many short ones. Unreachable goals are cached
+ * too.</p>
+ * <p>A {@link BFS} and an {@link AStar} give different paths for the same query, so each looks
+ * only at its own entries and one cache can serve both. The cache is thread-safe.</p>
+ */
+public final class PathCache {
+    private static final int ENTRY_BYTES = 64;  // Key, cache node and Optional around the path
+
+    /** Solvers whose paths are cached apart from each other. */
+    public enum Solver {
+        BFS,
+        A_STAR
+    }
+
+    /** Identifies a query of one kind of solver on one maze. */
+    public record Key(Solver solver, long fingerprint, int start, int goal) {
+    }
+
+    private final Cache<Key, Optional<EncodedPath>> cache;
+
+    /**
+     * @param maximumBytes approximate upper bound of the memory taken by the cached paths
+     */
+    public PathCache(long maximumBytes) {
+        if (maximumBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumBytes);
+        }
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((Key key, Optional<EncodedPath> path) -> ENTRY_BYTES + path.map(EncodedPath::byteSize).orElse(0))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns the cached path between the cells, or computes and caches it.
+     *
+     * @param solver computes the path for the key, returns null if the goal is unreachable
+     * @return the path, or empty if the goal is unreachable
+     */
+    public Optional<EncodedPath> get(MazeGraph graph, Solver kind, int start, int goal,
+        Function<Key, EncodedPath> solver) {
+        Key query = new Key(kind, graph.fingerprint(), start, goal);
+        return cache.get(query, key -> Optional.ofNullable(solver.apply(key)));
+    }
+
+    /** Hit, miss and eviction counts since the cache was created. */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /** Approximate number of cached paths. */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,123 @@
+package backend.academy;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * PrimCarver is the linear-time engine behind randomized Prim's algorithm.
+ * It carves a perfect maze into a rectangle of a {@link WallGrid}.
+ * <p>Visited cells are kept in a bitset, and the frontier (unvisited cells next to the
+ * carved area) in a plain array: a random frontier cell is picked in O(1) and removed
+ * by swapping in the last element. Only the four grid neighbours of a cell are ever
+ * looked at, so the whole rectangle is carved in O(rows * cols).</p>
+ * <p>A shared carver opens passages with atomic writes, so several of them can carve
+ * disjoint rectangles of the same grid in parallel.</p>
+ */
+final class PrimCarver {
+    private static final int WORD_SHIFT = 6;  // log2(Long.SIZE)
+
+    private final WallGrid grid;
+    private final RandomGenerator random;
+    private final int top;
+    private final int left;
+    private final int rows;
+    private final int cols;
+    private final boolean shared;
+    private final long[] visited;
+    private final long[] queued;     // Cells that are already in the frontier
+    private final int[] frontier;    // Local ids (row * cols + col) of the frontier cells
+    private final Direction[] candidates = new Direction[WallGrid.MAX_NEIGHBORS];
+    private int frontierSize;
+
+    PrimCarver(WallGrid grid, RandomGenerator random, int top, int left, int rows, int cols) {
+        this(grid, random, top, left, rows, cols, false);
+    }
+
+    PrimCarver(WallGrid grid, RandomGenerator random, int top, int left, int rows, int cols, boolean shared) {
+        if (top < 0 || left < 0 || rows <= 0 || cols <= 0
+            || top + rows > grid.height() || left + cols > grid.width()) {
+            throw new IllegalArgumentException("Rectangle must lie inside the maze.");
+        }
+        this.grid = grid;
+        this.random = random;
+        this.top = top;
+        this.left = left;
+        this.rows = rows;
+        this.cols = cols;
+        this.shared = shared;
+        int cells = rows * cols;
+        this.visited = new long[(cells + Long.SIZE - 1) >>> WORD_SHIFT];
+        this.queued = new long[visited.length];
+        this.frontier = new int[cells];
+    }
+
+    /** Carves a spanning tree of the rectangle, starting from a random cell. */
+    void carve() {
+        int start = random.nextInt(rows * cols);
+        set(visited, start);
+        addFrontier(start);
+
+        while (frontierSize > 0) {
+            int index = random.nextInt(frontierSize);
+            int cell = frontier[index];
+            frontier[index] = frontier[--frontierSize];
+
+            // Connect the cell to one of its already carved neighbours
+            int row = cell / cols;
+            int col = cell % cols;
+            int count = 0;
+            if (row > 0 && isSet(visited, cell - cols)) {
+                candidates[count++] = Direction.NORTH;
+            }
+            if (col < cols - 1 && isSet(visited, cell + 1)) {
+                candidates[count++] = Direction.EAST;
+            }
+            if (row < rows - 1 && isSet(visited, cell + cols)) {
+                candidates[count++] = Direction.SOUTH;
+            }
+            if (col > 0 && isSet(visited, cell - 1)) {
+                candidates[count++] = Direction.WEST;
+            }
+            int cellId = grid.cellId(top + row, left + col);
+            Direction direction = candidates[random.nextInt(count)];
+            if (shared) {
+                grid.openConcurrently(cellId, direction);
+            } else {
+                grid.open(cellId, direction, 0);
+            }
+            set(visited, cell);
+            addFrontier(cell);
+        }
+    }
+
+    private void addFrontier(int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        if (row > 0) {
+            enqueue(cell - cols);
+        }
+        if (col < cols - 1) {
+            enqueue(cell + 1);
+        }
+        if (row < rows - 1) {
+            enqueue(cell + cols);
+        }
+        if (col > 0) {
+            enqueue(cell - 1);
+        }
+    }
+
+    private void enqueue(int cell) {
+        if (!isSet(visited, cell) && !isSet(queued, cell)) {
+            set(queued, cell);
+            frontier[frontierSize++] = cell;
+        }
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> WORD_SHIFT] & 1L << index) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> WORD_SHIFT] |= 1L << index;
+    }
+}
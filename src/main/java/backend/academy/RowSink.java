@@ -0,0 +1,14 @@
+package backend.academy;
+
+/**
+ * Receives the rows of a maze one by one, from north to south.
+ * Used by generators that stream the maze instead of keeping it in memory.
+ */
+@FunctionalInterface
+public interface RowSink {
+    /**
+     * Accepts the next finished row.
+     * <p>The row object is reused for the next row, so copy what you need before returning.</p>
+     */
+    void acceptRow(MazeRow row);
+}
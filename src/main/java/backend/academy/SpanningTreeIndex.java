@@ -0,0 +1,126 @@
+package backend.academy;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * SpanningTreeIndex answers lowest-common-ancestor and distance queries on a maze
+ * whose passages form a spanning tree, such as a perfect maze right after generation.
+ * <p>The tree is rooted at cell 0. Besides its parent and depth every cell keeps one
+ * jump pointer to an ancestor, chosen so that any ancestor is reached in O(log n) jumps.
+ * Unlike binary lifting this needs three ints per cell, so the index stays small even for
+ * mazes with millions of cells.</p>
+ * <p>The index is a snapshot: passages opened later are not seen by it.</p>
+ */
+public final class SpanningTreeIndex {
+    private static final int ROOT = 0;
+    private static final int UNVISITED = -1;
+
+    private final @Getter int cellCount;
+    private final int[] parents;
+    private final int[] jumps;
+    private final int[] depths;
+
+    /**
+     * Builds the index over the open passages of the grid.
+     *
+     * @throws IllegalArgumentException if the passages do not form a spanning tree
+     */
+    public SpanningTreeIndex(WallGrid grid) {
+        this(grid.freeze());
+    }
+
+    /**
+     * Builds the index over the passages of a maze snapshot.
+     *
+     * @throws IllegalArgumentException if the passages do not form a spanning tree
+     */
+    public SpanningTreeIndex(MazeGraph graph) {
+        this.cellCount = graph.cellCount();
+        if (graph.passageCount() != cellCount - 1) {
+            throw new IllegalArgumentException("Passages do not form a spanning tree: "
+                + graph.passageCount() + " passages for " + cellCount + " cells.");
+        }
+        this.parents = new int[cellCount];
+        this.jumps = new int[cellCount];
+        this.depths = new int[cellCount];
+        Arrays.fill(parents, UNVISITED);
+
+        // Breadth-first order guarantees that a parent is indexed before its children
+        int[] queue = new int[cellCount];
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = ROOT;
+        parents[ROOT] = ROOT;
+        jumps[ROOT] = ROOT;
+        while (head < tail) {
+            int current = queue[head++];
+            int count = graph.neighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (neighbor == parents[current]) {
+                    continue;
+                }
+                if (parents[neighbor] != UNVISITED) {
+                    // With n - 1 passages a cycle means some cells are cut off
+                    throw new IllegalArgumentException("Passages form a cycle through cell " + neighbor + ".");
+                }
+                attach(neighbor, current);
+                queue[tail++] = neighbor;
+            }
+        }
+        if (tail != cellCount) {
+            throw new IllegalArgumentException("Passages do not connect all " + cellCount + " cells.");
+        }
+    }
+
+    // Skew-binary jump pointers: jump twice as far as the parent does whenever the parent's two jumps are equal
+    private void attach(int cell, int parent) {
+        parents[cell] = parent;
+        depths[cell] = depths[parent] + 1;
+        int jump = jumps[parent];
+        jumps[cell] = depths[parent] - depths[jump] == depths[jump] - depths[jumps[jump]] ? jumps[jump] : parent;
+    }
+
+    public int parent(int cellId) {
+        return parents[cellId];
+    }
+
+    /** Number of passages between the cell and the root of the tree. */
+    public int depth(int cellId) {
+        return depths[cellId];
+    }
+
+    /** Returns the deepest cell that lies on the tree paths from both cells to the root. */
+    public int lowestCommonAncestor(int cell1, int cell2) {
+        int deeper = depths[cell1] >= depths[cell2] ? cell1 : cell2;
+        int other = deeper == cell1 ? cell2 : cell1;
+        deeper = ancestorAtDepth(deeper, depths[other]);
+        while (deeper != other) {
+            // Cells at the same depth have jump pointers of the same length
+            if (jumps[deeper] != jumps[other]) {
+                deeper = jumps[deeper];
+                other = jumps[other];
+            } else {
+                deeper = parents[deeper];
+                other = parents[other];
+            }
+        }
+        return deeper;
+    }
+
+    /** Returns the ancestor of the cell at the given depth, which must not exceed the depth of the cell. */
+    public int ancestorAtDepth(int cellId, int depth) {
+        int current = cellId;
+        while (depths[current] > depth) {
+            current = depths[jumps[current]] >= depth ? jumps[current] : parents[current];
+        }
+        return current;
+    }
+
+    /** Number of passages on the only path between the cells. */
+    public int distance(int cell1, int cell2) {
+        return depths[cell1] + depths[cell2] - 2 * depths[lowestCommonAncestor(cell1, cell2)];
+    }
+}
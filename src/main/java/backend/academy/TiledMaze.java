@@ -0,0 +1,118 @@
+package backend.academy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * TiledMaze generates a perfect maze in parallel.
+ * The grid is cut into square tiles, and every tile is carved independently with Prim's
+ * algorithm on a {@link ForkJoinPool}, each with its own split of the maze random generator.
+ * The tiles are then stitched together: a random spanning tree is built over the tile grid,
+ * and exactly one passage is opened across the seam of every tile pair in that tree.
+ * <p>Every tile is a spanning tree of its cells and the tiles form a tree too,
+ * so the whole maze is a spanning tree of the grid.</p>
+ * <p>For a seeded random generator the maze does not depend on the number of threads.</p>
+ * <p>This algorithm is designed for non-weighted graphs.</p>
+ */
+public final class TiledMaze extends AbstractGraphMaze {
+    public static final int DEFAULT_TILE_SIZE = 256;
+    private static final int TILES_PER_TASK = 4;  // Tiles carved by one task without forking further
+
+    private final int tileSize;
+    private final ForkJoinPool pool;
+
+    public TiledMaze(int width, int height) {
+        this(width, height, MazeRandom.fromConfiguration());
+    }
+
+    public TiledMaze(int width, int height, MazeRandom random) {
+        this(width, height, random, DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public TiledMaze(int width, int height, MazeRandom random, int tileSize, ForkJoinPool pool) {
+        super(width, height, false, random);
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    @Override
+    public void generateMaze() {
+        clearMazeEdges();
+        int tileRows = (height() + tileSize - 1) / tileSize;
+        int tileCols = (width() + tileSize - 1) / tileSize;
+
+        // Split the streams up front, so the tile a stream goes to does not depend on scheduling
+        MazeRandom[] streams = new MazeRandom[tileRows * tileCols];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = random().split();
+        }
+        pool.invoke(new CarveTiles(streams, tileCols, 0, streams.length));
+        grid().recountPassages();
+
+        // A random spanning tree over the tiles tells which seams get a passage
+        WallGrid tiles = new WallGrid(tileCols, tileRows);
+        new PrimCarver(tiles, random(), 0, 0, tileRows, tileCols).carve();
+        for (int tile = 0; tile < tiles.cellCount(); tile++) {
+            if (tiles.isOpen(tile, Direction.EAST)) {
+                openEastSeam(tiles.row(tile), tiles.col(tile));
+            }
+            if (tiles.isOpen(tile, Direction.SOUTH)) {
+                openSouthSeam(tiles.row(tile), tiles.col(tile));
+            }
+        }
+    }
+
+    private int tileHeight(int tileRow) {
+        return Math.min(tileSize, height() - tileRow * tileSize);
+    }
+
+    private int tileWidth(int tileCol) {
+        return Math.min(tileSize, width() - tileCol * tileSize);
+    }
+
+    private void openEastSeam(int tileRow, int tileCol) {
+        int row = tileRow * tileSize + random().nextInt(tileHeight(tileRow));
+        int col = tileCol * tileSize + tileSize - 1;
+        grid().open(row, col, Direction.EAST);
+    }
+
+    private void openSouthSeam(int tileRow, int tileCol) {
+        int row = tileRow * tileSize + tileSize - 1;
+        int col = tileCol * tileSize + random().nextInt(tileWidth(tileCol));
+        grid().open(row, col, Direction.SOUTH);
+    }
+
+    // Carves the tiles [from, to) by halving the range until it is small enough
+    @SuppressWarnings("serial")
+    private final class CarveTiles extends RecursiveAction {
+        private final MazeRandom[] streams;
+        private final int tileCols;
+        private final int from;
+        private final int to;
+
+        CarveTiles(MazeRandom[] streams, int tileCols, int from, int to) {
+            this.streams = streams;
+            this.tileCols = tileCols;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TILES_PER_TASK) {
+                for (int tile = from; tile < to; tile++) {
+                    int tileRow = tile / tileCols;
+                    int tileCol = tile % tileCols;
+                    new PrimCarver(grid(), streams[tile], tileRow * tileSize, tileCol * tileSize,
+                        tileHeight(tileRow), tileWidth(tileCol), true).carve();
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CarveTiles(streams, tileCols, from, middle), new CarveTiles(streams, tileCols, middle, to));
+        }
+    }
+}
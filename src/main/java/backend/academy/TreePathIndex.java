@@ -0,0 +1,70 @@
+package backend.academy;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * TreePathIndex answers path queries on a perfect maze without searching it.
+ * In a perfect maze the passages form a spanning tree, so the path between two cells is
+ * unique: it goes up from both cells to their lowest common ancestor.
+ * <p>The tree is indexed once by a {@link SpanningTreeIndex} (an iterative walk from the
+ * root). A distance query then costs O(log n), and a path query O(log n + path length).</p>
+ * <p>The index is immutable and can be shared between threads.</p>
+ */
+public final class TreePathIndex {
+    private final @Getter MazeGraph graph;
+    private final SpanningTreeIndex tree;
+
+    /**
+     * Indexes the given maze snapshot.
+     *
+     * @throws IllegalArgumentException if the maze is not perfect (has cycles or unreachable cells)
+     */
+    public TreePathIndex(MazeGraph graph) {
+        this.graph = graph;
+        this.tree = new SpanningTreeIndex(graph);
+    }
+
+    /** Number of passages on the path between the cells. */
+    public int distance(int cell1, int cell2) {
+        return tree.distance(cell1, cell2);
+    }
+
+    /**
+     * Writes the path between the cells, both included, into the buffer.
+     *
+     * @param buffer array with room for {@code distance(from, to) + 1} cells
+     * @return the number of cells written
+     */
+    public int path(int from, int to, int[] buffer) {
+        int ancestor = tree.lowestCommonAncestor(from, to);
+        int length = 0;
+        for (int cell = from; cell != ancestor; cell = tree.parent(cell)) {
+            buffer[length++] = cell;
+        }
+        buffer[length++] = ancestor;
+
+        // The second half is found from the goal upwards, so it is written back to front
+        int end = length + tree.depth(to) - tree.depth(ancestor);
+        int position = end;
+        for (int cell = to; cell != ancestor; cell = tree.parent(cell)) {
+            buffer[--position] = cell;
+        }
+        return end;
+    }
+
+    /** Returns the path between the cells, both included. */
+    public List<Cell> path(Cell from, Cell to) {
+        int width = graph.width();
+        int start = from.id(width);
+        int goal = to.id(width);
+        int[] cells = new int[distance(start, goal) + 1];
+        int length = path(start, goal, cells);
+        List<Cell> result = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            result.add(Cell.ofId(cells[i], width));
+        }
+        return result;
+    }
+}
@@ -1,8 +1,9 @@
 package backend.academy;
 
 import java.io.PrintStream;
-import java.security.SecureRandom;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -29,7 +30,8 @@ public class Utils {
 
     public final static String IF_HARD_MESSAGE = """
         Try find the path in the maze. You have 3 lives.
-        If '$' takes 1 live and '~' takes away 1 live. If you don't have any lives left, you're going to lose!
+        '$' gives you 1 live back (up to 3) and '~' takes away 1 live.
+        If you don't have any lives left, you're going to lose!
         Enter the beginning and end of a possible path.
         (the search for your path will be performed using the AStar algorithm)
         """;
@@ -52,7 +54,11 @@ public class Utils {
     public final static String HARD = "hard";
 
     public static <T> T getRandomValue(List<T> list) {
-        SecureRandom random = new SecureRandom();
+        return getRandomValue(list, ThreadLocalRandom.current());
+    }
+
+    // Use the generator of the maze to get values that can be reproduced from its seed
+    public static <T> T getRandomValue(List<T> list, RandomGenerator random) {
         int randomIndex = random.nextInt(list.size());
         return list.get(randomIndex);
     }
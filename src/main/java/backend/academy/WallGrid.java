@@ -0,0 +1,301 @@
+package backend.academy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * WallGrid is a compact store of the walls of a rectangular maze.
+ * Every cell owns two bits: its east wall and its south wall. The north and west walls
+ * of a cell are the south and east walls of its neighbours, so the whole maze fits into
+ * {@code width * height * 2} bits. Walls on the outer border are never opened.
+ * <p>Passage weights (0..3) are packed the same way in a second array,
+ * which is allocated only when a non-zero weight is stored.</p>
+ * <p>Besides the row/column methods the grid has a primitive API keyed by
+ * {@code cellId = row * width + col}; it never allocates and is meant for hot loops.</p>
+ */
+public final class WallGrid {
+    public static final int MAX_WEIGHT = 3;
+    public static final int MAX_NEIGHBORS = 4;
+
+    private static final int BITS_PER_CELL = 2;   // East wall, south wall
+    private static final int WORD_SHIFT = 6;      // log2(Long.SIZE)
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    private static final int WEIGHT_BITS = 2;     // Weights 0..3 per passage
+    private static final int WEIGHT_CELLS_PER_WORD = Long.SIZE / (BITS_PER_CELL * WEIGHT_BITS);
+    private static final long WEIGHT_MASK = 0b11L;
+    private static final int EAST_BIT = 0;
+    private static final int SOUTH_BIT = 1;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final @Getter int width;
+    private final @Getter int height;
+    private final @Getter int cellCount;
+    private final long[] walls;
+    private long[] weights;
+    private @Getter int passageCount;
+    private MazeGraph snapshot;  // Frozen copy of the current state, dropped on every change
+
+    public WallGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be positive.");
+        }
+        if ((long) width * height > Integer.MAX_VALUE / BITS_PER_CELL) {
+            throw new IllegalArgumentException("Maze is too large: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.cellCount = width * height;
+        this.walls = new long[wordCount(cellCount, CELLS_PER_WORD)];
+        Arrays.fill(walls, -1L); // Every wall is standing at the start
+    }
+
+    private static int wordCount(int cells, int cellsPerWord) {
+        return (cells + cellsPerWord - 1) / cellsPerWord;
+    }
+
+    public int cellId(int row, int col) {
+        return row * width + col;
+    }
+
+    public int row(int cellId) {
+        return cellId / width;
+    }
+
+    public int col(int cellId) {
+        return cellId % width;
+    }
+
+    /** Returns the id of the cell next to the given one, without checking the walls. */
+    public int neighbor(int cellId, Direction direction) {
+        return cellId + direction.rowOffset() * width + direction.colOffset();
+    }
+
+    public boolean isOpen(int row, int col, Direction direction) {
+        return contains(row, col) && isOpen(cellId(row, col), direction);
+    }
+
+    public boolean isOpen(int cellId, Direction direction) {
+        int bit = wallBit(cellId, direction);
+        return bit >= 0 && isClear(bit);
+    }
+
+    public boolean isOpen(Edge edge) {
+        Cell cell1 = edge.cell1();
+        Cell cell2 = edge.cell2();
+        return isOpen(cell1.row(), cell1.col(),
+            Direction.between(cell1.row(), cell1.col(), cell2.row(), cell2.col()));
+    }
+
+    /** Returns the weight of the passage, or 0 if the passage has no weight. */
+    public int weight(int row, int col, Direction direction) {
+        return contains(row, col) ? weight(cellId(row, col), direction) : 0;
+    }
+
+    public int weight(int cellId, Direction direction) {
+        int bit = wallBit(cellId, direction);
+        return bit >= 0 ? storedWeight(bit) : 0;
+    }
+
+    /**
+     * Writes the ids of the cells reachable from the given cell in one step into the buffer,
+     * in the order north, east, south, west.
+     *
+     * @param buffer array with room for at least {@link #MAX_NEIGHBORS} ids
+     * @return the number of neighbours written
+     */
+    public int neighbors(int cellId, int[] buffer) {
+        return neighbors(cellId, buffer, null);
+    }
+
+    /**
+     * Same as {@link #neighbors(int, int[])}, but also writes the weight of every passage.
+     *
+     * @param weightBuffer array receiving the weight of the passage to {@code buffer[i]}, may be null
+     */
+    public int neighbors(int cellId, int[] buffer, int[] weightBuffer) {
+        int count = 0;
+        int col = col(cellId);
+        count = addIfClear(cellId >= width, (cellId - width) * BITS_PER_CELL + SOUTH_BIT,
+            cellId - width, buffer, weightBuffer, count);
+        count = addIfClear(col < width - 1, cellId * BITS_PER_CELL + EAST_BIT,
+            cellId + 1, buffer, weightBuffer, count);
+        count = addIfClear(cellId < cellCount - width, cellId * BITS_PER_CELL + SOUTH_BIT,
+            cellId + width, buffer, weightBuffer, count);
+        return addIfClear(col > 0, (cellId - 1) * BITS_PER_CELL + EAST_BIT,
+            cellId - 1, buffer, weightBuffer, count);
+    }
+
+    private int addIfClear(boolean inside, int bit, int target, int[] buffer, int[] weightBuffer, int count) {
+        if (!inside || !isClear(bit)) {
+            return count;
+        }
+        buffer[count] = target;
+        if (weightBuffer != null) {
+            weightBuffer[count] = storedWeight(bit);
+        }
+        return count + 1;
+    }
+
+    public void open(int row, int col, Direction direction) {
+        open(row, col, direction, 0);
+    }
+
+    /** Removes the wall in the given direction and remembers the weight of the new passage. */
+    public void open(int row, int col, Direction direction, int weight) {
+        requireCell(row, col);
+        open(cellId(row, col), direction, weight);
+    }
+
+    public void open(int cellId, Direction direction, int weight) {
+        if (weight < 0 || weight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Weight must be between 0 and " + MAX_WEIGHT + ": " + weight);
+        }
+        int bit = requireInnerWall(cellId, direction);
+        snapshot = null;
+        if (!isClear(bit)) {
+            walls[bit >>> WORD_SHIFT] &= ~(1L << bit);
+            passageCount++;
+        }
+        storeWeight(bit, weight);
+    }
+
+    /**
+     * Opens an unweighted passage with an atomic write, so threads that carve different parts
+     * of the grid may share storage words. The passage count and the snapshot are not updated:
+     * call {@link #recountPassages()} once every writer is done.
+     */
+    void openConcurrently(int cellId, Direction direction) {
+        int bit = requireInnerWall(cellId, direction);
+        WORDS.getAndBitwiseAnd(walls, bit >>> WORD_SHIFT, ~(1L << bit));
+    }
+
+    // Counts the open passages again after openConcurrently(), border and padding bits are never cleared
+    void recountPassages() {
+        int count = 0;
+        for (long word : walls) {
+            count += Long.bitCount(~word);
+        }
+        passageCount = count;
+        snapshot = null;
+    }
+
+    public void open(Edge edge) {
+        Cell cell1 = edge.cell1();
+        Cell cell2 = edge.cell2();
+        open(cell1.row(), cell1.col(), Direction.between(cell1.row(), cell1.col(), cell2.row(), cell2.col()),
+            edge.weight());
+    }
+
+    /** Puts the wall in the given direction back. */
+    public void close(int row, int col, Direction direction) {
+        requireCell(row, col);
+        int bit = requireInnerWall(cellId(row, col), direction);
+        snapshot = null;
+        if (isClear(bit)) {
+            walls[bit >>> WORD_SHIFT] |= 1L << bit;
+            passageCount--;
+        }
+        storeWeight(bit, 0);
+    }
+
+    /** Restores every wall, turning the grid back into an unvisited chessboard. */
+    public void closeAll() {
+        Arrays.fill(walls, -1L);
+        weights = null;
+        passageCount = 0;
+        snapshot = null;
+    }
+
+    /**
+     * Returns an immutable snapshot of the grid. The snapshot is cached until the grid
+     * is changed again, so repeated calls between changes cost nothing.
+     */
+    public MazeGraph freeze() {
+        if (snapshot == null) {
+            snapshot = new MazeGraph(this);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Lists every open passage as an edge, row by row, with the east passage of a cell
+     * before its south passage.
+     */
+    public List<Edge> passages() {
+        List<Edge> passages = new ArrayList<>(passageCount);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (isOpen(row, col, Direction.EAST)) {
+                    passages.add(new Edge(new Cell(row, col), new Cell(row, col + 1),
+                        weight(row, col, Direction.EAST)));
+                }
+                if (isOpen(row, col, Direction.SOUTH)) {
+                    passages.add(new Edge(new Cell(row, col), new Cell(row + 1, col),
+                        weight(row, col, Direction.SOUTH)));
+                }
+            }
+        }
+        return passages;
+    }
+
+    private boolean contains(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+    private boolean isClear(int bit) {
+        return (walls[bit >>> WORD_SHIFT] & (1L << bit)) == 0;
+    }
+
+    private int storedWeight(int bit) {
+        if (weights == null) {
+            return 0;
+        }
+        int shift = bit % (Long.SIZE / WEIGHT_BITS) * WEIGHT_BITS;
+        return (int) (weights[bit / (Long.SIZE / WEIGHT_BITS)] >>> shift & WEIGHT_MASK);
+    }
+
+    private void storeWeight(int bit, int weight) {
+        if (weights == null) {
+            if (weight == 0) {
+                return;
+            }
+            weights = new long[wordCount(cellCount, WEIGHT_CELLS_PER_WORD)];
+        }
+        int word = bit / (Long.SIZE / WEIGHT_BITS);
+        int shift = bit % (Long.SIZE / WEIGHT_BITS) * WEIGHT_BITS;
+        weights[word] = weights[word] & ~(WEIGHT_MASK << shift) | (long) weight << shift;
+    }
+
+    private void requireCell(int row, int col) {
+        if (!contains(row, col)) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col + ") is outside the maze.");
+        }
+    }
+
+    private int requireInnerWall(int cellId, Direction direction) {
+        int bit = wallBit(cellId, direction);
+        if (bit < 0) {
+            throw new IllegalArgumentException("There is no inner wall to the " + direction
+                + " of cell " + cellId + ".");
+        }
+        return bit;
+    }
+
+    // Index of the bit that stores the wall, or -1 if the wall is a border of the maze
+    private int wallBit(int cellId, Direction direction) {
+        if (cellId < 0 || cellId >= cellCount) {
+            return -1;
+        }
+        int col = col(cellId);
+        return switch (direction) {
+            case EAST -> col < width - 1 ? cellId * BITS_PER_CELL + EAST_BIT : -1;
+            case SOUTH -> cellId < cellCount - width ? cellId * BITS_PER_CELL + SOUTH_BIT : -1;
+            case WEST -> col > 0 ? (cellId - 1) * BITS_PER_CELL + EAST_BIT : -1;
+            case NORTH -> cellId >= width ? (cellId - width) * BITS_PER_CELL + SOUTH_BIT : -1;
+        };
+    }
+}
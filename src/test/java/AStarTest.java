@@ -1,12 +1,21 @@
 import backend.academy.AbstractGraphMaze;
 import backend.academy.AStar;
+import backend.academy.Cell;
+import backend.academy.Direction;
+import backend.academy.Edge;
 import backend.academy.KruskalMaze;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
 
 class AStarTest {
     private AbstractGraphMaze maze;
@@ -14,7 +23,8 @@ class AStarTest {
 
     @BeforeEach
     void setUp() {
-        maze = new KruskalMaze(5, 5);
+        // Not every random maze can be crossed without running out of lives, this one can
+        maze = new KruskalMaze(5, 5, 0);
     }
 
     @Test
@@ -28,6 +38,7 @@ class AStarTest {
         aStar.printPath(outputMaze);
 
         assertThat(aStar.obstacle()[4][4]).isFalse();  // Ensure the goal cell is part of the path
+        assertThat(aStar.peakOpenSetSize()).isLessThanOrEqualTo(maze.width() * maze.height());
     }
 
     @Test
@@ -38,5 +49,96 @@ class AStarTest {
         // Assert
         assertThat(aStar.obstacle()[4][4]).isTrue();  // Path should not reach the goal
     }
-}
 
+    // Maze of one row whose passages have the given weights, from west to east
+    private static AbstractGraphMaze corridor(int... weights) {
+        AbstractGraphMaze corridor = new AbstractGraphMaze(weights.length + 1, 1, true) {
+            @Override
+            public void generateMaze() {
+                for (int col = 0; col < weights.length; col++) {
+                    addMazeEdge(new Edge(new Cell(0, col), new Cell(0, col + 1), weights[col]));
+                }
+            }
+        };
+        corridor.generateMaze();
+        return corridor;
+    }
+
+    @Test
+    void testLivesRunOutOnThreeBadPassages() {
+        AStar deadly = new AStar(corridor(3, 2, 3, 3));
+        deadly.findPath(0, 0, 0, 4);
+        assertThat(deadly.pathCost()).isEqualTo(AStar.NO_PATH);
+
+        // A '$' on the way gives one life back
+        AStar saved = new AStar(corridor(3, 1, 3, 3));
+        saved.findPath(0, 0, 0, 4);
+        assertThat(saved.pathCost()).isEqualTo(10);
+    }
+
+    @Test
+    void testCostMatchesSearchOverAllStates() {
+        for (long seed = 0; seed < 20; seed++) {
+            KruskalMaze kruskal = new KruskalMaze(12, 12, seed);
+            kruskal.generateMaze();
+            AStar solver = new AStar(kruskal);
+            solver.findPath(0, 0, 11, 11);
+
+            assertThat(solver.pathCost()).isEqualTo(referenceCost(kruskal.graph(), 0, 12 * 12 - 1));
+        }
+    }
+
+    @Test
+    void testCostStaysOptimalAfterOpeningPassages() {
+        KruskalMaze kruskal = new KruskalMaze(12, 12, 3);
+        kruskal.generateMaze();
+        Random random = new Random(3);
+        for (int i = 0; i < 30; i++) {
+            kruskal.openPassage(random.nextInt(11), random.nextInt(11),
+                random.nextBoolean() ? Direction.EAST : Direction.SOUTH);
+        }
+        kruskal.openPassage(5, 5, Direction.EAST);
+        assertThat(kruskal.graph().weight(kruskal.graph().cellId(5, 5), Direction.EAST)).isEqualTo(2);
+
+        AStar solver = new AStar(kruskal);
+        for (int goal = 1; goal < 12 * 12; goal += 7) {
+            solver.findPath(0, 0, goal / 12, goal % 12);
+            assertThat(solver.pathCost()).isEqualTo(referenceCost(kruskal.graph(), 0, goal));
+        }
+        assertThatThrownBy(() -> kruskal.openPassage(0, 0, Direction.EAST, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Dijkstra over every (cell, lives) pair, without heuristic or pruning
+    private static int referenceCost(MazeGraph graph, int start, int goal) {
+        int maxLives = AStar.MAX_LIVES;
+        int[] costs = new int[graph.cellCount() * (maxLives + 1)];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        PriorityQueue<int[]> heap = new PriorityQueue<>((a, b) -> Integer.compare(a[2], b[2]));
+        costs[start * (maxLives + 1) + maxLives] = 0;
+        heap.add(new int[] {start, maxLives, 0});
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+        while (!heap.isEmpty()) {
+            int[] entry = heap.poll();
+            if (entry[0] == goal) {
+                return entry[2];
+            }
+            if (entry[2] > costs[entry[0] * (maxLives + 1) + entry[1]]) {
+                continue;
+            }
+            int count = graph.neighbors(entry[0], neighbors, weights);
+            for (int i = 0; i < count; i++) {
+                int lives = weights[i] == 1 ? Math.min(maxLives, entry[1] + 1)
+                    : weights[i] == 3 ? entry[1] - 1 : entry[1];
+                int cost = entry[2] + weights[i];
+                int state = neighbors[i] * (maxLives + 1) + lives;
+                if (lives > 0 && cost < costs[state]) {
+                    costs[state] = cost;
+                    heap.add(new int[] {neighbors[i], lives, cost});
+                }
+            }
+        }
+        return AStar.NO_PATH;
+    }
+}
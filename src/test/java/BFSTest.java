@@ -51,4 +51,14 @@ public class BFSTest {
         int lastColIndex = (maze.width() - 1) * 5 + 2;
         assertThat(mazeElements.get(lastRowIndex).charAt(lastColIndex)).isEqualTo('•'); // End point (4,4)
     }
+
+    @Test
+    public void testSecondQueryIsNotAffectedByFirst() {
+        bfs.findPath(0, 0, 4, 4);
+        bfs.findPath(4, 4, 4, 4);
+
+        boolean[][] visitedCells = bfs.visited();
+        assertThat(visitedCells[0][0]).isFalse(); // Only the start cell of the second query is visited
+        assertThat(visitedCells[4][4]).isTrue();
+    }
 }
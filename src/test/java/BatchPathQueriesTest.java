@@ -0,0 +1,124 @@
+import backend.academy.BatchPathQueries;
+import backend.academy.BfsEngine;
+import backend.academy.DialSolver;
+import backend.academy.Direction;
+import backend.academy.EncodedPath;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatchPathQueriesTest {
+
+    private static int[] randomPairs(MazeGraph graph, int queries, long seed) {
+        Random random = new Random(seed);
+        int[] pairs = new int[2 * queries];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = random.nextInt(graph.cellCount());
+        }
+        return pairs;
+    }
+
+    @Test
+    public void testUnweightedLengthsMatchBfs() {
+        MazeGraph graph = TestMazes.withCycles(35, 30, 5, 35 * 30 / 5, false);
+        int[] pairs = randomPairs(graph, 400, 5);
+
+        BatchPathQueries.Result result = BatchPathQueries.solve(graph, pairs, true);
+
+        BfsEngine bfs = new BfsEngine(graph);
+        int[] buffer = new int[graph.cellCount()];
+        for (int query = 0; query < 400; query++) {
+            bfs.search(pairs[2 * query], pairs[2 * query + 1]);
+            int expected = bfs.path(pairs[2 * query + 1], buffer) - 1;
+            assertThat(result.lengths()[query]).isEqualTo(expected);
+            EncodedPath path = result.paths()[query];
+            assertThat(path.moveCount()).isEqualTo(expected);
+            int[] cells = path.decode(graph.width());
+            assertThat(TestMazes.walk(graph, cells, cells.length, pairs[2 * query], pairs[2 * query + 1]))
+                .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testWeightedLengthsAreCheapestCosts() {
+        MazeGraph graph = TestMazes.withCycles(30, 30, 9, 30 * 30 / 5, true);
+        int[] pairs = randomPairs(graph, 300, 9);
+
+        BatchPathQueries.Result result = BatchPathQueries.solve(graph, pairs, true);
+
+        DialSolver dijkstra = new DialSolver(graph);
+        for (int query = 0; query < 300; query++) {
+            int start = pairs[2 * query];
+            int goal = pairs[2 * query + 1];
+            assertThat(result.lengths()[query]).isEqualTo(dijkstra.dijkstra(start, goal));
+            int[] cells = result.paths()[query].decode(graph.width());
+            assertThat(TestMazes.walk(graph, cells, cells.length, start, goal)).isEqualTo(result.lengths()[query]);
+        }
+    }
+
+    @Test
+    public void testSameResultOnAnyPool() {
+        MazeGraph graph = TestMazes.withCycles(40, 40, 3, 40 * 40 / 5, false);
+        int[] pairs = randomPairs(graph, 500, 3);
+
+        BatchPathQueries.Result common = BatchPathQueries.solve(graph, pairs, false);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchPathQueries.Result custom = BatchPathQueries.solve(graph, pairs, false, pool);
+            assertThat(custom.lengths()).containsExactly(common.lengths());
+            assertThat(custom.paths()).isNull();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSolversOfOneCallAreNotReusedByTheNext() {
+        MazeGraph small = TestMazes.withCycles(10, 10, 4, 20, true);
+        MazeGraph large = TestMazes.withCycles(50, 40, 4, 400, true);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BatchPathQueries.solve(small, randomPairs(small, 100, 4), true, pool);
+            int[] pairs = randomPairs(large, 200, 4);
+            BatchPathQueries.Result result = BatchPathQueries.solve(large, pairs, true, pool);
+
+            DialSolver dijkstra = new DialSolver(large);
+            for (int query = 0; query < 200; query++) {
+                int expected = dijkstra.dijkstra(pairs[2 * query], pairs[2 * query + 1]);
+                assertThat(result.lengths()[query]).isEqualTo(expected);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreachableGoal() {
+        WallGrid grid = new WallGrid(4, 4);
+        grid.open(0, 0, Direction.EAST);
+        MazeGraph graph = grid.freeze();
+
+        BatchPathQueries.Result result = BatchPathQueries.solve(graph, new int[] {0, 1, 0, 15, 5, 5}, true);
+
+        assertThat(result.lengths()).containsExactly(new int[] {1, BatchPathQueries.NO_PATH, 0});
+        assertThat(result.paths()[1]).isNull();
+        assertThat(result.paths()[2].moveCount()).isZero();
+        assertThat(result.paths()[2].start()).isEqualTo(5);
+    }
+
+    @Test
+    public void testRejectsMalformedQueries() {
+        MazeGraph graph = new WallGrid(3, 3).freeze();
+
+        assertThatThrownBy(() -> BatchPathQueries.solve(graph, new int[] {0, 1, 2}, false))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BatchPathQueries.solve(graph, new int[] {0, 9}, false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,56 @@
+import backend.academy.BfsEngine;
+import backend.academy.Direction;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+import backend.academy.SpanningTreeIndex;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+public class BfsEngineTest {
+
+    @Test
+    public void testBackToBackQueriesFindShortestPaths() {
+        PrimMaze maze = new PrimMaze(60, 40, MazeRandom.ofSeed(1));
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        WallGrid grid = new WallGrid(graph.width(), graph.height());
+        maze.mazeEdges().forEach(grid::open);
+        SpanningTreeIndex tree = new SpanningTreeIndex(grid);
+        BfsEngine engine = new BfsEngine(graph);
+        int[] path = new int[graph.cellCount()];
+        Random random = new Random(2);
+
+        for (int query = 0; query < 200; query++) {
+            int start = random.nextInt(graph.cellCount());
+            int goal = random.nextInt(graph.cellCount());
+
+            assertThat(engine.search(start, goal)).isTrue();
+            int length = engine.path(goal, path);
+            // A perfect maze has exactly one path, the tree path
+            assertThat(length).isEqualTo(tree.distance(start, goal) + 1);
+            assertThat(path[0]).isEqualTo(start);
+            assertThat(path[length - 1]).isEqualTo(goal);
+        }
+    }
+
+    @Test
+    public void testUnreachableGoalLeavesOnlyReachedCellsVisited() {
+        WallGrid grid = new WallGrid(4, 1);
+        grid.open(0, 0, Direction.EAST);
+        BfsEngine engine = new BfsEngine(grid.freeze());
+
+        assertThat(engine.search(0, 3)).isFalse();
+        assertThat(engine.isVisited(1)).isTrue();
+        assertThat(engine.isVisited(2)).isFalse();
+        assertThat(engine.path(3, new int[4])).isZero();
+
+        // The next query starts from a clean state without clearing anything
+        assertThat(engine.search(2, 2)).isTrue();
+        assertThat(engine.isVisited(1)).isFalse();
+    }
+}
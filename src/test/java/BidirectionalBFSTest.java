@@ -0,0 +1,65 @@
+import backend.academy.BfsEngine;
+import backend.academy.BidirectionalBFS;
+import backend.academy.BidirectionalBfsEngine;
+import backend.academy.Cell;
+import backend.academy.Direction;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+public class BidirectionalBFSTest {
+
+    @Test
+    public void testFindsCornerToCornerPath() {
+        PrimMaze maze = new PrimMaze(40, 40, MazeRandom.ofSeed(4));
+        maze.generateMaze();
+        BidirectionalBFS bfs = new BidirectionalBFS(maze);
+
+        bfs.findPath(0, 0, 39, 39);
+
+        List<Cell> path = bfs.path();
+        assertThat(path.getFirst()).isEqualTo(new Cell(0, 0));
+        assertThat(path.getLast()).isEqualTo(new Cell(39, 39));
+        for (int i = 1; i < path.size(); i++) {
+            Cell from = path.get(i - 1);
+            Cell to = path.get(i);
+            Direction direction = Direction.between(from.row(), from.col(), to.row(), to.col());
+            assertThat(maze.graph().isOpen(maze.graph().cellId(from.row(), from.col()), direction)).isTrue();
+        }
+    }
+
+    @Test
+    public void testPathLengthMatchesBfsInMazeWithCycles() {
+        // Start from a perfect maze and knock out random walls to get many alternative routes
+        PrimMaze maze = new PrimMaze(30, 25, MazeRandom.ofSeed(8));
+        maze.generateMaze();
+        WallGrid grid = new WallGrid(30, 25);
+        maze.mazeEdges().forEach(grid::open);
+        Random random = new Random(8);
+        for (int i = 0; i < 150; i++) {
+            int row = random.nextInt(24);
+            int col = random.nextInt(29);
+            grid.open(row, col, random.nextBoolean() ? Direction.EAST : Direction.SOUTH);
+        }
+        MazeGraph graph = grid.freeze();
+        BfsEngine plain = new BfsEngine(graph);
+        BidirectionalBfsEngine bidirectional = new BidirectionalBfsEngine(graph);
+        int[] buffer = new int[graph.cellCount()];
+
+        for (int query = 0; query < 300; query++) {
+            int start = random.nextInt(graph.cellCount());
+            int goal = random.nextInt(graph.cellCount());
+            plain.search(start, goal);
+            bidirectional.search(start, goal);
+
+            assertThat(bidirectional.path(buffer)).isEqualTo(plain.path(goal, buffer));
+        }
+    }
+}
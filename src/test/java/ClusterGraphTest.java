@@ -0,0 +1,161 @@
+import backend.academy.ClusterGraph;
+import backend.academy.ClusterSolver;
+import backend.academy.DialSolver;
+import backend.academy.Direction;
+import backend.academy.KruskalMaze;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ClusterGraphTest {
+
+    private static void assertMatchesDial(ClusterSolver solver, MazeGraph graph, Random random, int queries) {
+        DialSolver dial = new DialSolver(graph);
+        int[] buffer = new int[graph.cellCount()];
+        for (int query = 0; query < queries; query++) {
+            int start = random.nextInt(graph.cellCount());
+            int goal = random.nextInt(graph.cellCount());
+            int expected = dial.dijkstra(start, goal);
+
+            assertThat(solver.dijkstra(start, goal)).isEqualTo(expected);
+            assertThat(solver.aStar(start, goal)).isEqualTo(expected);
+            int length = solver.path(buffer);
+            if (expected == ClusterSolver.NO_PATH) {
+                assertThat(length).isZero();
+            } else {
+                assertThat(TestMazes.walk(graph, buffer, length, start, goal)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testCostsMatchDialForEveryClusterSize() {
+        MazeGraph graph = TestMazes.withCycles(37, 29, 8, 37 * 29 / 10, true);
+        for (int clusterSize : new int[] {1, 5, 8, 40}) {
+            ClusterGraph clusters = new ClusterGraph(TestMazes.copy(graph), clusterSize, ForkJoinPool.commonPool());
+
+            assertMatchesDial(new ClusterSolver(clusters), graph, new Random(clusterSize), 200);
+        }
+    }
+
+    @Test
+    public void testEntrancesAreCellsWithPassagesOutOfTheirCluster() {
+        PrimMaze maze = new PrimMaze(30, 30, MazeRandom.ofSeed(3));
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        ClusterGraph clusters = new ClusterGraph(maze, 10, ForkJoinPool.commonPool());
+
+        int expected = 0;
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            boolean entrance = false;
+            for (Direction direction : Direction.values()) {
+                if (graph.isOpen(cell, direction)) {
+                    int neighbor = graph.cellId(graph.row(cell) + direction.rowOffset(),
+                        graph.col(cell) + direction.colOffset());
+                    entrance |= clusters.clusterOf(neighbor) != clusters.clusterOf(cell);
+                }
+            }
+            if (entrance) {
+                expected++;
+                int cluster = clusters.clusterOf(cell);
+                int node = clusters.nodeOffset(cluster) + clusters.entranceOf(cell);
+                assertThat(clusters.entranceCell(cluster, clusters.entranceOf(cell))).isEqualTo(cell);
+                assertThat(clusters.clusterOfNode(node)).isEqualTo(cluster);
+            } else {
+                assertThat(clusters.entranceOf(cell)).isEqualTo(-1);
+            }
+        }
+        assertThat(clusters.clusterCount()).isEqualTo(9);
+        assertThat(clusters.nodeCount()).isEqualTo(expected);
+        assertThat(clusters.byteSize()).isPositive();
+    }
+
+    // Opens the passage if it is closed and closes it otherwise, so the maze always changes
+    private static void toggle(KruskalMaze maze, int row, int col, Direction direction, int weight) {
+        MazeGraph graph = maze.graph();
+        if (graph.isOpen(graph.cellId(row, col), direction)) {
+            maze.closePassage(row, col, direction);
+        } else {
+            maze.openPassage(row, col, direction, weight);
+        }
+    }
+
+    @Test
+    public void testChangesOfTheMazeMeasureOnlyTheTouchedClusters() {
+        KruskalMaze maze = new KruskalMaze(30, 24, 12);
+        maze.generateMaze();
+        ClusterGraph clusters = new ClusterGraph(maze, 6, ForkJoinPool.commonPool());
+        ClusterSolver solver = new ClusterSolver(clusters);
+        Random random = new Random(12);
+
+        // Inside one cluster, then across the border of two
+        toggle(maze, 2, 2, Direction.EAST, 1);
+        assertThat(clusters.updatedClusters()).isEqualTo(1);
+        toggle(maze, 5, 3, Direction.SOUTH, 1);
+        assertThat(clusters.updatedClusters()).isEqualTo(2);
+        assertMatchesDial(solver, maze.graph(), random, 50);
+
+        for (int edit = 0; edit < 40; edit++) {
+            int row = random.nextInt(24 - 1);
+            int col = random.nextInt(30 - 1);
+            Direction direction = random.nextBoolean() ? Direction.EAST : Direction.SOUTH;
+            if (random.nextInt(3) == 0) {
+                maze.closePassage(row, col, direction);
+            } else {
+                maze.openPassage(row, col, direction, 1 + random.nextInt(WallGrid.MAX_WEIGHT));
+            }
+            assertMatchesDial(solver, maze.graph(), random, 10);
+        }
+    }
+
+    @Test
+    public void testRegeneratedMazeNeedsNewGraph() {
+        KruskalMaze maze = new KruskalMaze(12, 12, 4);
+        maze.generateMaze();
+        ClusterGraph clusters = new ClusterGraph(maze, 4, ForkJoinPool.commonPool());
+        ClusterSolver solver = new ClusterSolver(clusters);
+        assertThat(solver.aStar(0, 143)).isPositive();
+
+        maze.generateMaze();
+        maze.openPassage(0, 0, Direction.EAST, 1);
+        assertThatThrownBy(() -> solver.aStar(0, 143)).isInstanceOf(IllegalStateException.class);
+
+        // A detached graph no longer hears about changes
+        ClusterGraph fresh = new ClusterGraph(maze, 4, ForkJoinPool.commonPool());
+        fresh.detach();
+        toggle(maze, 1, 1, Direction.SOUTH, 1);
+        assertThat(fresh.updatedClusters()).isZero();
+    }
+
+    @Test
+    public void testUpdateOfAGridTheCallerEdits() {
+        MazeGraph graph = TestMazes.withCycles(20, 20, 6, 40, true);
+        WallGrid grid = TestMazes.copy(graph);
+        ClusterGraph clusters = new ClusterGraph(grid, 5, ForkJoinPool.commonPool());
+
+        grid.close(4, 4, Direction.EAST);
+        clusters.update(grid.cellId(4, 4), Direction.EAST);
+        assertThat(clusters.updatedClusters()).isEqualTo(2);
+        assertMatchesDial(new ClusterSolver(clusters), grid.freeze(), new Random(6), 50);
+    }
+
+    @Test
+    public void testRejectsBadClusterSizeAndCellOutsideTheMaze() {
+        WallGrid grid = new WallGrid(4, 4);
+        ClusterGraph clusters = new ClusterGraph(grid, ClusterGraph.DEFAULT_CLUSTER_SIZE, ForkJoinPool.commonPool());
+
+        assertThatThrownBy(() -> new ClusterGraph(grid, 0, ForkJoinPool.commonPool()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> clusters.update(16, Direction.EAST))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new ClusterSolver(clusters).aStar(0, 15)).isEqualTo(ClusterSolver.NO_PATH);
+    }
+}
@@ -0,0 +1,135 @@
+import backend.academy.DStarLite;
+import backend.academy.DialSolver;
+import backend.academy.Direction;
+import backend.academy.KruskalMaze;
+import backend.academy.MazeChangeListener;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PassageChange;
+import backend.academy.PrimMaze;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DStarLiteTest {
+
+    private static void assertMatchesDial(DStarLite planner, MazeGraph graph, int[] buffer) {
+        int expected = new DialSolver(graph).dijkstra(planner.start(), planner.goal());
+        assertThat(planner.plan()).isEqualTo(expected);
+        if (expected == DStarLite.NO_PATH) {
+            assertThat(planner.path(buffer)).isZero();
+        } else {
+            int length = planner.path(buffer);
+            assertThat(TestMazes.walk(graph, buffer, length, planner.start(), planner.goal())).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testReplansMatchDialAfterEditsAndMoves() {
+        KruskalMaze maze = new KruskalMaze(40, 35, 11);
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        DStarLite planner = new DStarLite(maze, 0, graph.cellCount() - 1);
+        int[] buffer = new int[graph.cellCount()];
+        Random random = new Random(11);
+
+        assertMatchesDial(planner, graph, buffer);
+        for (int edit = 0; edit < 200; edit++) {
+            int row = random.nextInt(34);
+            int col = random.nextInt(39);
+            Direction direction = random.nextBoolean() ? Direction.EAST : Direction.SOUTH;
+            if (random.nextInt(3) == 0) {
+                maze.closePassage(row, col, direction);
+            } else {
+                maze.openPassage(row, col, direction, 1 + random.nextInt(3));
+            }
+            if (random.nextInt(4) == 0 && planner.path(buffer) > 1) {
+                planner.moveStart(buffer[1]);
+            }
+            assertMatchesDial(planner, maze.graph(), buffer);
+        }
+    }
+
+    @Test
+    public void testSmallChangeRepairsFewCells() {
+        KruskalMaze maze = new KruskalMaze(60, 60, 4);
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        DStarLite planner = new DStarLite(maze, 0, graph.cellCount() - 1);
+        int[] buffer = new int[graph.cellCount()];
+        planner.plan();
+        int initial = planner.expandedCount();
+
+        // The search runs from the goal, so a change near the start, where an agent sees it, touches few cells
+        planner.path(buffer);
+        int cell = buffer[2];
+        int next = buffer[3];
+        Direction direction = Direction.between(graph.row(cell), graph.col(cell), graph.row(next), graph.col(next));
+        maze.openPassage(graph.row(cell), graph.col(cell), direction, 3);
+
+        assertMatchesDial(planner, maze.graph(), buffer);
+        assertThat(planner.expandedCount()).isLessThan(initial / 4);
+        // A path that does not fit is not returned in part
+        int length = planner.path(buffer);
+        assertThat(planner.path(new int[length - 1])).isZero();
+        assertThat(planner.path(new int[length])).isEqualTo(length);
+    }
+
+    @Test
+    public void testChangesAreReportedAndRegenerationStartsOver() {
+        PrimMaze maze = new PrimMaze(12, 10, MazeRandom.ofSeed(6));
+        maze.generateMaze();
+        List<PassageChange> changes = new ArrayList<>();
+        int[] cleared = new int[1];
+        maze.addChangeListener(new MazeChangeListener() {
+            @Override
+            public void passageChanged(PassageChange change) {
+                changes.add(change);
+            }
+
+            @Override
+            public void mazeCleared() {
+                cleared[0]++;
+            }
+        });
+        DStarLite planner = new DStarLite(maze, 0, 119);
+        int[] buffer = new int[120];
+        assertMatchesDial(planner, maze.graph(), buffer);
+        boolean open = maze.graph().isOpen(maze.graph().cellId(4, 4), Direction.EAST);
+
+        maze.closePassage(4, 4, Direction.EAST);
+        maze.openPassage(4, 4, Direction.EAST, 2);
+        maze.openPassage(4, 4, Direction.EAST, 2);
+
+        assertThat(changes).hasSize(open ? 2 : 1);
+        PassageChange last = changes.getLast();
+        assertThat(last.cellId()).isEqualTo(4 * 12 + 4);
+        assertThat(last.wasOpen()).isFalse();
+        assertThat(last.cost()).isEqualTo(2);
+        assertThat(last.previousCost()).isEqualTo(-1);
+        assertMatchesDial(planner, maze.graph(), buffer);
+
+        maze.generateMaze();
+        assertThat(cleared[0]).isEqualTo(1);
+        assertMatchesDial(planner, maze.graph(), buffer);
+        // A detached planner no longer hears about changes
+        planner.detach();
+        maze.closePassage(0, 0, Direction.EAST);
+        maze.closePassage(0, 0, Direction.SOUTH);
+        assertThat(planner.plan()).isNotEqualTo(DStarLite.NO_PATH);
+    }
+
+    @Test
+    public void testRejectsCellsOutsideTheMaze() {
+        PrimMaze maze = new PrimMaze(3, 3, MazeRandom.ofSeed(1));
+        maze.generateMaze();
+
+        assertThatThrownBy(() -> new DStarLite(maze, 0, 9)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DStarLite(maze, 0, 8).moveStart(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
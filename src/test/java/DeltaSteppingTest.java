@@ -0,0 +1,81 @@
+import backend.academy.DeltaStepping;
+import backend.academy.Direction;
+import backend.academy.DistanceField;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DeltaSteppingTest {
+
+    // Every passage open with a random weight, so the buckets get large enough to be split between tasks
+    private static MazeGraph weightedField(int width, int height, long seed) {
+        WallGrid grid = new WallGrid(width, height);
+        Random random = new Random(seed);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (col + 1 < width) {
+                    grid.open(row, col, Direction.EAST, 1 + random.nextInt(3));
+                }
+                if (row + 1 < height) {
+                    grid.open(row, col, Direction.SOUTH, 1 + random.nextInt(3));
+                }
+            }
+        }
+        return grid.freeze();
+    }
+
+    // The distance field runs a sequential Dijkstra with the same passage costs
+    private static void assertMatchesDijkstra(DeltaStepping stepping, int source) {
+        DistanceField expected = new DistanceField(stepping.graph(), source);
+        for (int cell = 0; cell < stepping.graph().cellCount(); cell++) {
+            assertThat(stepping.cost(cell)).isEqualTo(expected.distance(cell));
+        }
+    }
+
+    @Test
+    public void testCostsMatchDijkstraForEveryDelta() {
+        MazeGraph graph = TestMazes.withCycles(45, 40, 13, 400, true);
+        for (int delta : new int[] {1, 2, 3, 8}) {
+            DeltaStepping stepping = new DeltaStepping(graph, ForkJoinPool.commonPool(), delta);
+            for (int source : new int[] {0, graph.cellId(20, 22), graph.cellCount() - 1}) {
+                stepping.run(source);
+                assertMatchesDijkstra(stepping, source);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelPhasesMatchDijkstra() {
+        MazeGraph graph = weightedField(500, 500, 21);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            DeltaStepping stepping = new DeltaStepping(graph, pool, 8);
+            stepping.run(graph.cellId(250, 250));
+
+            assertMatchesDijkstra(stepping, graph.cellId(250, 250));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreachedCells() {
+        WallGrid grid = new WallGrid(3, 3);
+        grid.open(1, 1, Direction.EAST, 3);
+        DeltaStepping stepping = new DeltaStepping(grid.freeze());
+
+        stepping.run(4);
+
+        assertThat(stepping.cost(5)).isEqualTo(3);
+        assertThat(stepping.cost(0)).isEqualTo(DeltaStepping.UNREACHED);
+        assertThatThrownBy(() -> stepping.run(9)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DeltaStepping(grid.freeze(), ForkJoinPool.commonPool(), 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+import backend.academy.DialSolver;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class DialSolverTest {
+
+    // Textbook Dijkstra on a binary heap
+    private static int referenceCost(MazeGraph graph, int start, int goal) {
+        int[] costs = new int[graph.cellCount()];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        costs[start] = 0;
+        PriorityQueue<int[]> heap = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        heap.add(new int[] {start, 0});
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+        while (!heap.isEmpty()) {
+            int[] entry = heap.poll();
+            if (entry[1] > costs[entry[0]]) {
+                continue;
+            }
+            int count = graph.neighbors(entry[0], neighbors, weights);
+            for (int i = 0; i < count; i++) {
+                int cost = entry[1] + Math.max(weights[i], 1);
+                if (cost < costs[neighbors[i]]) {
+                    costs[neighbors[i]] = cost;
+                    heap.add(new int[] {neighbors[i], cost});
+                }
+            }
+        }
+        return costs[goal] == Integer.MAX_VALUE ? DialSolver.NO_PATH : costs[goal];
+    }
+
+    @Test
+    public void testCostsMatchBinaryHeapDijkstra() {
+        MazeGraph graph = TestMazes.withCycles(40, 30, 6, 40 * 30 / 4, true);
+        DialSolver solver = new DialSolver(graph);
+        Random random = new Random(6);
+
+        for (int query = 0; query < 200; query++) {
+            int start = random.nextInt(graph.cellCount());
+            int goal = random.nextInt(graph.cellCount());
+            int expected = referenceCost(graph, start, goal);
+
+            assertThat(solver.dijkstra(start, goal)).isEqualTo(expected);
+            assertThat(solver.aStar(start, goal)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testPathCostAddsUpAndAStarExpandsLess() {
+        MazeGraph graph = TestMazes.withCycles(60, 60, 3, 60 * 60 / 4, true);
+        DialSolver solver = new DialSolver(graph);
+        int start = graph.cellId(30, 30);
+        int goal = graph.cellId(35, 40);
+
+        int dijkstraCost = solver.dijkstra(start, goal);
+        int dijkstraExpanded = solver.expandedCount();
+        int cost = solver.aStar(start, goal);
+        int[] path = new int[graph.cellCount()];
+        int length = solver.path(goal, path);
+
+        assertThat(cost).isEqualTo(dijkstraCost);
+        assertThat(solver.expandedCount()).isLessThanOrEqualTo(dijkstraExpanded);
+        assertThat(TestMazes.walk(graph, path, length, start, goal)).isEqualTo(cost);
+    }
+}
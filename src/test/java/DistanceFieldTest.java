@@ -0,0 +1,74 @@
+import backend.academy.BfsEngine;
+import backend.academy.DialSolver;
+import backend.academy.Direction;
+import backend.academy.DistanceField;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DistanceFieldTest {
+
+    // Every step of the path must follow an open passage and lower the distance by its cost
+    private static void assertDescendsToGoal(DistanceField field, int start) {
+        MazeGraph graph = field.graph();
+        int[] cells = field.path(start);
+        assertThat(cells[0]).isEqualTo(start);
+        assertThat(cells[cells.length - 1]).isEqualTo(field.goal());
+        for (int i = 1; i < cells.length; i++) {
+            Direction direction = field.nextStep(cells[i - 1]);
+            assertThat(graph.isOpen(cells[i - 1], direction)).isTrue();
+            int cost = Math.max(graph.weight(cells[i - 1], direction), 1);
+            assertThat(field.distance(cells[i])).isEqualTo(field.distance(cells[i - 1]) - cost);
+        }
+    }
+
+    @Test
+    public void testUnweightedDistancesMatchBfs() {
+        MazeGraph graph = TestMazes.withCycles(30, 20, 12, 30 * 20 / 5, false);
+        int goal = graph.cellId(19, 29);
+
+        DistanceField field = new DistanceField(graph, goal);
+
+        BfsEngine bfs = new BfsEngine(graph);
+        int[] buffer = new int[graph.cellCount()];
+        bfs.search(goal, -1);
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            assertThat(field.distance(cell)).isEqualTo(bfs.path(cell, buffer) - 1);
+            assertDescendsToGoal(field, cell);
+        }
+    }
+
+    @Test
+    public void testWeightedDistancesMatchDijkstra() {
+        MazeGraph graph = TestMazes.withCycles(25, 25, 4, 25 * 25 / 5, true);
+        int goal = graph.cellId(12, 3);
+
+        DistanceField field = new DistanceField(graph, goal);
+
+        DialSolver dijkstra = new DialSolver(graph);
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            assertThat(field.distance(cell)).isEqualTo(dijkstra.dijkstra(cell, goal));
+            assertDescendsToGoal(field, cell);
+        }
+    }
+
+    @Test
+    public void testUnreachableCells() {
+        WallGrid grid = new WallGrid(3, 3);
+        grid.open(0, 0, Direction.EAST);
+        DistanceField field = new DistanceField(grid.freeze(), 1);
+
+        assertThat(field.distance(0)).isEqualTo(1);
+        assertThat(field.nextStep(0)).isEqualTo(Direction.EAST);
+        assertThat(field.isReachable(8)).isFalse();
+        assertThat(field.distance(8)).isEqualTo(DistanceField.UNREACHABLE);
+        assertThat(field.path(8)).isEmpty();
+        assertThat(field.path(1)).containsExactly(new int[] {1});
+        assertThatThrownBy(() -> field.nextStep(8)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> field.nextStep(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DistanceField(grid.freeze(), 9)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,69 @@
+import backend.academy.Direction;
+import backend.academy.EllerMaze;
+import backend.academy.MazeRandom;
+import backend.academy.MazeTextWriter;
+import backend.academy.PrimMaze;
+import backend.academy.SpanningTreeIndex;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+public class EllerMazeTest {
+
+    // Copies the streamed rows into a grid, so small mazes can be checked as a whole
+    private static WallGrid collect(int width, int height, long seed) {
+        WallGrid grid = new WallGrid(width, height);
+        new EllerMaze(width, height, row -> {
+            for (int col = 0; col < row.width(); col++) {
+                if (row.isEastOpen(col)) {
+                    grid.open(row.index(), col, Direction.EAST);
+                }
+                if (row.isSouthOpen(col)) {
+                    grid.open(row.index(), col, Direction.SOUTH);
+                }
+            }
+        }, MazeRandom.ofSeed(seed)).generateMaze();
+        return grid;
+    }
+
+    @Test
+    public void testMazeIsSpanningTree() {
+        int[][] sizes = {{1, 1}, {1, 7}, {7, 1}, {5, 5}, {40, 30}};
+        for (int[] size : sizes) {
+            WallGrid grid = collect(size[0], size[1], 3);
+
+            // The index accepts only passages that connect all cells without cycles
+            assertThat(new SpanningTreeIndex(grid).cellCount()).isEqualTo(size[0] * size[1]);
+        }
+    }
+
+    @Test
+    public void testWriterDrawsSameTextAsAssembler() {
+        WallGrid grid = collect(9, 6, 11);
+        StringBuilder text = new StringBuilder();
+        new EllerMaze(9, 6, new MazeTextWriter(text), MazeRandom.ofSeed(11)).generateMaze();
+
+        List<String> expected = new PrimMaze(9, 6).assembleMaze(grid.passages(), 6, 9);
+        assertThat(List.of(text.toString().split(System.lineSeparator()))).isEqualTo(expected);
+    }
+
+    @Test
+    public void testTallMazeIsStreamed() {
+        int width = 300;
+        int height = 20_000;
+        long[] passages = new long[1];
+        int[] lastRow = {-1};
+        new EllerMaze(width, height, row -> {
+            lastRow[0] = row.index();
+            for (int col = 0; col < row.width(); col++) {
+                passages[0] += (row.isEastOpen(col) ? 1 : 0) + (row.isSouthOpen(col) ? 1 : 0);
+            }
+        }).generateMaze();
+
+        assertThat(lastRow[0]).isEqualTo(height - 1);
+        assertThat(passages[0]).isEqualTo((long) width * height - 1);
+    }
+}
@@ -0,0 +1,88 @@
+import backend.academy.IndexedMinHeap;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    public void testPollsInKeyOrderAfterDecreases() {
+        IndexedMinHeap heap = new IndexedMinHeap(100);
+        int[] keys = new int[100];
+        Random random = new Random(1);
+        for (int id = 0; id < 100; id++) {
+            keys[id] = random.nextInt(1000);
+            heap.insertOrDecrease(id, keys[id]);
+        }
+        for (int i = 0; i < 300; i++) {
+            int id = random.nextInt(100);
+            int key = random.nextInt(1000);
+            boolean changed = heap.insertOrDecrease(id, key);
+            assertThat(changed).isEqualTo(key < keys[id]);
+            keys[id] = Math.min(keys[id], key);
+        }
+
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (int expected : sorted) {
+            int id = heap.poll();
+            assertThat(keys[id]).isEqualTo(expected);
+            assertThat(heap.contains(id)).isFalse();
+        }
+        assertThat(heap.isEmpty()).isTrue();
+        assertThat(heap.peakSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void testClearAllowsReuse() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(3, 10);
+        heap.insertOrDecrease(1, 5);
+        heap.clear();
+
+        assertThat(heap.contains(3)).isFalse();
+        heap.insertOrDecrease(3, 7);
+        assertThat(heap.key(3)).isEqualTo(7);
+        assertThat(heap.poll()).isEqualTo(3);
+        assertThatThrownBy(heap::poll).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testUpdateAndRemoveKeepHeapOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(200);
+        long[] keys = new long[200];
+        boolean[] present = new boolean[200];
+        Random random = new Random(2);
+        for (int i = 0; i < 2000; i++) {
+            int id = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                heap.remove(id);
+                present[id] = false;
+            } else {
+                // Two int keys packed into one, like D* Lite does
+                keys[id] = (long) random.nextInt(50) << Integer.SIZE | random.nextInt(50);
+                heap.update(id, keys[id]);
+                present[id] = true;
+            }
+        }
+
+        long previous = Long.MIN_VALUE;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int id = heap.poll();
+            assertThat(present[id]).isTrue();
+            assertThat(keys[id]).isGreaterThanOrEqualTo(previous);
+            previous = keys[id];
+            count++;
+        }
+        int expected = 0;
+        for (boolean inHeap : present) {
+            expected += inHeap ? 1 : 0;
+        }
+        assertThat(count).isEqualTo(expected);
+    }
+}
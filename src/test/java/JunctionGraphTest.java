@@ -0,0 +1,133 @@
+import backend.academy.BfsEngine;
+import backend.academy.Cell;
+import backend.academy.DialSolver;
+import backend.academy.Direction;
+import backend.academy.JunctionGraph;
+import backend.academy.JunctionPathFinder;
+import backend.academy.JunctionSolver;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+public class JunctionGraphTest {
+
+    @Test
+    public void testEveryCellIsJunctionOrInOneCorridor() {
+        PrimMaze maze = new PrimMaze(40, 30, MazeRandom.ofSeed(9));
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+
+        JunctionGraph junctions = graph.junctions();
+
+        int inner = 0;
+        for (int corridor = 0; corridor < junctions.corridorCount(); corridor++) {
+            inner += junctions.corridorLength(corridor);
+            assertThat(junctions.corridorCost(corridor)).isEqualTo(junctions.corridorLength(corridor) + 1);
+        }
+        assertThat(junctions.junctionCount() + inner).isEqualTo(graph.cellCount());
+        // A spanning tree has one corridor per passage between junctions
+        assertThat(junctions.corridorCount()).isEqualTo(junctions.junctionCount() - 1);
+        assertThat(junctions.junctionCount()).isLessThan(graph.cellCount());
+        assertThat(junctions.edgeCount()).isEqualTo(2 * junctions.corridorCount());
+        assertThat(graph.junctions()).isSameAs(junctions);
+        assertThat(junctions.byteSize()).isPositive();
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            if (!junctions.isJunction(cell)) {
+                int slot = junctions.slotOf(cell);
+                int corridor = junctions.corridorOfSlot(slot);
+                assertThat(junctions.corridorCell(corridor, junctions.positionOfSlot(corridor, slot))).isEqualTo(cell);
+            }
+        }
+    }
+
+    @Test
+    public void testUnweightedLengthsMatchBfs() {
+        MazeGraph graph = TestMazes.withCycles(35, 35, 4, 150, false);
+        JunctionSolver solver = new JunctionSolver(graph.junctions());
+        BfsEngine bfs = new BfsEngine(graph);
+        int[] buffer = new int[graph.cellCount()];
+        Random random = new Random(4);
+
+        for (int query = 0; query < 400; query++) {
+            int start = random.nextInt(graph.cellCount());
+            int goal = random.nextInt(graph.cellCount());
+            bfs.search(start, goal);
+            int expected = bfs.path(goal, buffer) - 1;
+
+            assertThat(solver.dijkstra(start, goal)).isEqualTo(expected);
+            assertThat(solver.aStar(start, goal)).isEqualTo(expected);
+            int length = solver.path(buffer);
+            assertThat(length - 1).isEqualTo(expected);
+            TestMazes.walk(graph, buffer, length, start, goal);
+        }
+    }
+
+    @Test
+    public void testWeightedCostsMatchDijkstra() {
+        MazeGraph graph = TestMazes.withCycles(30, 30, 6, 120, true);
+        JunctionSolver solver = new JunctionSolver(graph.junctions());
+        DialSolver dial = new DialSolver(graph);
+        int[] buffer = new int[graph.cellCount()];
+        Random random = new Random(6);
+
+        for (int query = 0; query < 400; query++) {
+            int start = random.nextInt(graph.cellCount());
+            int goal = random.nextInt(graph.cellCount());
+            int expected = dial.dijkstra(start, goal);
+
+            assertThat(solver.aStar(start, goal)).isEqualTo(expected);
+            assertThat(TestMazes.walk(graph, buffer, solver.path(buffer), start, goal)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testRingWithoutJunctionsAndUnreachableGoal() {
+        WallGrid grid = new WallGrid(3, 3);
+        grid.open(0, 0, Direction.EAST);
+        grid.open(0, 1, Direction.SOUTH);
+        grid.open(1, 1, Direction.WEST);
+        grid.open(1, 0, Direction.NORTH);
+        MazeGraph graph = grid.freeze();
+        JunctionGraph junctions = graph.junctions();
+        JunctionSolver solver = new JunctionSolver(junctions);
+        int[] buffer = new int[graph.cellCount()];
+
+        // The ring gets one junction; the five closed cells are junctions of their own
+        assertThat(junctions.junctionCount()).isEqualTo(6);
+        assertThat(solver.dijkstra(graph.cellId(0, 1), graph.cellId(1, 0))).isEqualTo(2);
+        int length = solver.path(buffer);
+        assertThat(TestMazes.walk(graph, buffer, length, graph.cellId(0, 1), graph.cellId(1, 0))).isEqualTo(2);
+        assertThat(solver.dijkstra(0, 8)).isEqualTo(JunctionSolver.NO_PATH);
+        assertThat(solver.path(buffer)).isZero();
+        assertThat(solver.dijkstra(4, 4)).isZero();
+        assertThat(solver.path(buffer)).isEqualTo(1);
+    }
+
+    @Test
+    public void testPathFinderFollowsMazeAfterRegeneration() {
+        PrimMaze maze = new PrimMaze(20, 20, MazeRandom.ofSeed(2));
+        maze.generateMaze();
+        JunctionPathFinder finder = new JunctionPathFinder(maze);
+
+        for (int generation = 0; generation < 2; generation++) {
+            finder.findPath(0, 0, 19, 19);
+            BfsEngine bfs = new BfsEngine(maze.graph());
+            bfs.search(0, maze.graph().cellCount() - 1);
+            int expected = bfs.path(maze.graph().cellCount() - 1, new int[maze.graph().cellCount()]);
+
+            List<Cell> path = finder.path();
+            assertThat(path).hasSize(expected);
+            assertThat(path.getFirst()).isEqualTo(new Cell(0, 0));
+            assertThat(path.getLast()).isEqualTo(new Cell(19, 19));
+            assertThat(finder.pathCost()).isEqualTo(expected - 1);
+            maze.generateMaze();
+        }
+    }
+}
@@ -1,9 +1,20 @@
+import backend.academy.Cell;
+import backend.academy.CreateGraphShortCycle;
+import backend.academy.Edge;
 import backend.academy.KruskalMaze;
+import backend.academy.MazeRandom;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 public class KruskalMazeTest {
     KruskalMaze maze;
 
@@ -30,4 +41,79 @@ public class KruskalMazeTest {
             .as("Quantity of edges in maze must equal to quantity of cells - 1 + additional path")
             .isGreaterThanOrEqualTo(expectedEdges);
     }
+
+    @Test
+    public void testSameSeedGivesSameMazeAsReferenceImplementation() {
+        long seed = 42;
+        KruskalMaze seededMaze = new KruskalMaze(12, 9, seed);
+        seededMaze.generateMaze();
+
+        assertThat(asSet(seededMaze.mazeEdges())).isEqualTo(referenceMaze(12, 9, seed));
+    }
+
+    // Straightforward object-based Kruskal that consumes the random numbers in the same order
+    private static Set<String> referenceMaze(int width, int height, long seed) {
+        Random random = Random.from(MazeRandom.ofSeed(seed));
+        int[] possibleWeights = {1, 2, 3};
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (j < width - 1) {
+                    edges.add(new Edge(new Cell(i, j), new Cell(i, j + 1)));
+                }
+                if (i < height - 1) {
+                    edges.add(new Edge(new Cell(i, j), new Cell(i + 1, j)));
+                }
+            }
+        }
+        List<Edge> weightedEdges = new ArrayList<>();
+        for (Edge edge : edges) {
+            weightedEdges.add(new Edge(edge.cell1(), edge.cell2(), possibleWeights[random.nextInt(3)]));
+        }
+        Collections.shuffle(weightedEdges, random);
+
+        int[] parent = new int[width * height];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        List<Edge> mazeEdges = new ArrayList<>();
+        List<Edge> skippedEdges = new ArrayList<>();
+        for (Edge edge : weightedEdges) {
+            int root1 = find(parent, edge.cell1().id(width));
+            int root2 = find(parent, edge.cell2().id(width));
+            if (root1 != root2) {
+                parent[root1] = root2;
+                mazeEdges.add(edge);
+            } else {
+                skippedEdges.add(edge);
+            }
+        }
+
+        Collections.shuffle(skippedEdges, random);
+        CreateGraphShortCycle cycles = new CreateGraphShortCycle() {
+        };
+        int added = 0;
+        for (Edge edge : skippedEdges) {
+            if (added >= CreateGraphShortCycle.MIN_CYCLE_LENGTH) {
+                break;
+            }
+            if (!cycles.createsShortCycle(edge, mazeEdges)) {
+                mazeEdges.add(edge);
+                added++;
+            }
+        }
+        return asSet(mazeEdges);
+    }
+
+    private static int find(int[] parent, int index) {
+        return parent[index] == index ? index : find(parent, parent[index]);
+    }
+
+    private static Set<String> asSet(List<Edge> edges) {
+        Set<String> result = new HashSet<>();
+        for (Edge edge : edges) {
+            result.add(edge.cell1() + "-" + edge.cell2() + ":" + edge.weight());
+        }
+        return result;
+    }
 }
@@ -0,0 +1,110 @@
+import backend.academy.AStar;
+import backend.academy.Direction;
+import backend.academy.DistanceField;
+import backend.academy.Heuristic;
+import backend.academy.KruskalMaze;
+import backend.academy.Landmarks;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class LandmarksTest {
+
+    @Test
+    public void testEstimateIsAdmissibleAndConsistent() {
+        KruskalMaze maze = new KruskalMaze(30, 30, 17);
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        Landmarks landmarks = new Landmarks(graph, 6);
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+        Random random = new Random(17);
+
+        for (int query = 0; query < 20; query++) {
+            int goal = random.nextInt(graph.cellCount());
+            DistanceField exact = new DistanceField(graph, goal);
+            for (int cell = 0; cell < graph.cellCount(); cell++) {
+                int estimate = landmarks.estimate(graph, cell, goal);
+                assertThat(estimate).isBetween(Heuristic.MANHATTAN.estimate(graph, cell, goal), exact.distance(cell));
+                int count = graph.neighbors(cell, neighbors, weights);
+                for (int i = 0; i < count; i++) {
+                    int cost = Math.max(weights[i], 1);
+                    assertThat(estimate).isLessThanOrEqualTo(cost + landmarks.estimate(graph, neighbors[i], goal));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFarthestPointSelection() {
+        KruskalMaze maze = new KruskalMaze(25, 20, 3);
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+
+        Landmarks landmarks = new Landmarks(graph, 5);
+
+        DistanceField fromOrigin = new DistanceField(graph, 0);
+        int farthest = 0;
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            farthest = Math.max(farthest, fromOrigin.distance(cell));
+        }
+        assertThat(fromOrigin.distance(landmarks.landmark(0))).isEqualTo(farthest);
+        // Cell 0 is no landmark, the second one only depends on the first
+        DistanceField fromFirst = new DistanceField(graph, landmarks.landmark(0));
+        int farthestFromFirst = 0;
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            farthestFromFirst = Math.max(farthestFromFirst, fromFirst.distance(cell));
+        }
+        assertThat(fromFirst.distance(landmarks.landmark(1))).isEqualTo(farthestFromFirst);
+        Set<Integer> distinct = new HashSet<>();
+        for (int i = 0; i < landmarks.count(); i++) {
+            distinct.add(landmarks.landmark(i));
+        }
+        assertThat(distinct).hasSize(5);
+    }
+
+    @Test
+    public void testAStarWithLandmarksFindsSameCostWithFewerExpansions() {
+        KruskalMaze maze = new KruskalMaze(40, 40, 5);
+        maze.generateMaze();
+        AStar manhattan = new AStar(maze);
+        AStar alt = new AStar(maze, null, new Landmarks(maze.graph(), 8));
+        Random random = new Random(5);
+        long manhattanExpanded = 0;
+        long altExpanded = 0;
+
+        for (int query = 0; query < 30; query++) {
+            int startRow = random.nextInt(40);
+            int startCol = random.nextInt(40);
+            int goalRow = random.nextInt(40);
+            int goalCol = random.nextInt(40);
+            manhattan.findPath(startRow, startCol, goalRow, goalCol);
+            alt.findPath(startRow, startCol, goalRow, goalCol);
+
+            assertThat(alt.pathCost()).isEqualTo(manhattan.pathCost());
+            manhattanExpanded += manhattan.expandedStates();
+            altExpanded += alt.expandedStates();
+        }
+        assertThat(altExpanded).isLessThan(manhattanExpanded);
+    }
+
+    @Test
+    public void testRejectsOtherMazeAndBadCount() {
+        WallGrid grid = new WallGrid(3, 3);
+        grid.open(0, 0, Direction.EAST, 2);
+        MazeGraph graph = grid.freeze();
+        Landmarks landmarks = new Landmarks(graph, 2);
+        MazeGraph other = new WallGrid(3, 3).freeze();
+
+        assertThatThrownBy(() -> landmarks.estimate(other, 0, 1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new Landmarks(graph, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Landmarks(graph, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,59 @@
+import backend.academy.CsrAdjacency;
+import backend.academy.Direction;
+import backend.academy.KruskalMaze;
+import backend.academy.MazeGraph;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MazeGraphTest {
+    @Test
+    public void testSnapshotIsSharedUntilGridChanges() {
+        WallGrid grid = new WallGrid(3, 3);
+        grid.open(0, 0, Direction.EAST, 2);
+
+        MazeGraph graph = grid.freeze();
+        assertThat(grid.freeze()).isSameAs(graph);
+
+        grid.open(1, 1, Direction.SOUTH);
+        assertThat(grid.freeze()).isNotSameAs(graph);
+        assertThat(graph.isOpen(graph.cellId(1, 1), Direction.SOUTH)).isFalse(); // The old snapshot is frozen
+        assertThat(graph.weight(graph.cellId(0, 1), Direction.WEST)).isEqualTo(2);
+    }
+
+    @Test
+    public void testGraphMatchesGeneratedMaze() {
+        KruskalMaze maze = new KruskalMaze(6, 4);
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+
+        int degrees = 0;
+        for (int cellId = 0; cellId < graph.cellCount(); cellId++) {
+            degrees += graph.degree(cellId);
+        }
+        assertThat(graph.passageCount()).isEqualTo(maze.mazeEdges().size());
+        assertThat(degrees).isEqualTo(2 * graph.passageCount());
+        assertThat(graph.weighted()).isTrue();
+    }
+
+    @Test
+    public void testCsrListsSamePassagesAsGraph() {
+        KruskalMaze maze = new KruskalMaze(5, 5);
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        CsrAdjacency csr = graph.csr();
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+
+        assertThat(csr.entryCount()).isEqualTo(2 * graph.passageCount());
+        for (int cellId = 0; cellId < graph.cellCount(); cellId++) {
+            int count = graph.neighbors(cellId, neighbors, weights);
+            assertThat(csr.offset(cellId + 1) - csr.offset(cellId)).isEqualTo(count);
+            for (int i = 0; i < count; i++) {
+                assertThat(csr.target(csr.offset(cellId) + i)).isEqualTo(neighbors[i]);
+                assertThat(csr.weight(csr.offset(cellId) + i)).isEqualTo(weights[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MazeRandomTest {
+
+    @Test
+    public void testSameSeedGivesSameValues() {
+        MazeRandom first = MazeRandom.ofSeed(7);
+        MazeRandom second = MazeRandom.ofSeed(7);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(first.nextInt(1000)).isEqualTo(second.nextInt(1000));
+        }
+    }
+
+    @Test
+    public void testSplitIsReproducibleAndIndependent() {
+        MazeRandom first = MazeRandom.ofSeed(7).split();
+        MazeRandom second = MazeRandom.ofSeed(7).split();
+        MazeRandom parent = MazeRandom.ofSeed(7);
+
+        long value = first.nextLong();
+        assertThat(second.nextLong()).isEqualTo(value);
+        assertThat(parent.nextLong()).isNotEqualTo(value);
+    }
+
+    @Test
+    public void testSeedIsReadFromConfiguration() {
+        System.setProperty(MazeRandom.SEED_PROPERTY, "123");
+        try {
+            PrimMaze first = new PrimMaze(20, 15);
+            PrimMaze second = new PrimMaze(20, 15);
+            first.generateMaze();
+            second.generateMaze();
+
+            assertThat(first.assembleMaze()).isEqualTo(second.assembleMaze());
+            System.setProperty(MazeRandom.SEED_PROPERTY, "not a seed");
+            assertThatThrownBy(MazeRandom::fromConfiguration).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            System.clearProperty(MazeRandom.SEED_PROPERTY);
+        }
+    }
+}
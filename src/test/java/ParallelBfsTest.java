@@ -0,0 +1,115 @@
+import backend.academy.BfsEngine;
+import backend.academy.Direction;
+import backend.academy.MazeGraph;
+import backend.academy.ParallelBfs;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelBfsTest {
+
+    private static MazeGraph openField(int width, int height) {
+        WallGrid grid = new WallGrid(width, height);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (col + 1 < width) {
+                    grid.open(row, col, Direction.EAST);
+                }
+                if (row + 1 < height) {
+                    grid.open(row, col, Direction.SOUTH);
+                }
+            }
+        }
+        return grid.freeze();
+    }
+
+    private static void assertMatchesBfs(ParallelBfs parallel, int source) {
+        MazeGraph graph = parallel.graph();
+        BfsEngine bfs = new BfsEngine(graph);
+        bfs.search(source, -1);
+        int[] buffer = new int[graph.cellCount()];
+        int reached = 0;
+        int eccentricity = 0;
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            int expected = bfs.path(cell, buffer) - 1;
+            assertThat(parallel.distance(cell)).isEqualTo(expected);
+            if (expected != ParallelBfs.UNREACHED) {
+                reached++;
+                eccentricity = Math.max(eccentricity, expected);
+            }
+            int parent = parallel.parent(cell);
+            if (cell == source || expected == ParallelBfs.UNREACHED) {
+                assertThat(parent).isEqualTo(ParallelBfs.NO_PARENT);
+            } else {
+                // Any parent one level closer through an open passage gives a shortest path
+                assertThat(parallel.distance(parent)).isEqualTo(expected - 1);
+                Direction direction = Direction.between(graph.row(cell), graph.col(cell),
+                    graph.row(parent), graph.col(parent));
+                assertThat(graph.isOpen(cell, direction)).isTrue();
+            }
+        }
+        assertThat(parallel.reachedCount()).isEqualTo(reached);
+        assertThat(parallel.eccentricity()).isEqualTo(eccentricity);
+    }
+
+    @Test
+    public void testSparseLevelsMatchBfs() {
+        MazeGraph graph = TestMazes.withCycles(60, 50, 2, 300, false);
+        ParallelBfs parallel = new ParallelBfs(graph);
+
+        parallel.run(graph.cellId(25, 30));
+
+        assertMatchesBfs(parallel, graph.cellId(25, 30));
+        assertThat(parallel.bottomUpLevels()).isZero();
+    }
+
+    @Test
+    public void testDenseLevelsMatchBfs() {
+        MazeGraph graph = TestMazes.withCycles(130, 90, 7, 3000, false);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelBfs parallel = new ParallelBfs(graph, pool, 0);
+            for (int source : new int[] {0, graph.cellId(45, 65), graph.cellCount() - 1}) {
+                parallel.run(source);
+                assertMatchesBfs(parallel, source);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSwitchesToBottomUpOnOpenField() {
+        MazeGraph graph = openField(150, 150);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelBfs parallel = new ParallelBfs(graph, pool, 8);
+            parallel.run(graph.cellId(75, 75));
+
+            assertThat(parallel.bottomUpLevels()).isPositive();
+            assertMatchesBfs(parallel, graph.cellId(75, 75));
+            assertThat(parallel.eccentricity()).isEqualTo(150);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreachedCells() {
+        WallGrid grid = new WallGrid(10, 7);  // 70 cells, the last bitset word is partly used
+        grid.open(0, 0, Direction.EAST);
+        grid.open(0, 1, Direction.SOUTH);
+        ParallelBfs parallel = new ParallelBfs(grid.freeze(), ForkJoinPool.commonPool(), 0);
+
+        parallel.run(0);
+
+        assertMatchesBfs(parallel, 0);
+        assertThat(parallel.reachedCount()).isEqualTo(3);
+        assertThat(parallel.isReached(69)).isFalse();
+        assertThatThrownBy(() -> parallel.run(70)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,113 @@
+import backend.academy.AStar;
+import backend.academy.BFS;
+import backend.academy.EncodedPath;
+import backend.academy.KruskalMaze;
+import backend.academy.MazeRandom;
+import backend.academy.PathCache;
+import backend.academy.PrimMaze;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PathCacheTest {
+
+    @Test
+    public void testFingerprintIdentifiesMaze() {
+        PrimMaze first = new PrimMaze(20, 15, MazeRandom.ofSeed(1));
+        first.generateMaze();
+        PrimMaze same = new PrimMaze(20, 15, MazeRandom.ofSeed(1));
+        same.generateMaze();
+        PrimMaze other = new PrimMaze(20, 15, MazeRandom.ofSeed(2));
+        other.generateMaze();
+
+        assertThat(same.graph().fingerprint()).isEqualTo(first.graph().fingerprint());
+        assertThat(other.graph().fingerprint()).isNotEqualTo(first.graph().fingerprint());
+    }
+
+    @Test
+    public void testBfsRepeatedQueryIsServedFromCache() {
+        PrimMaze maze = new PrimMaze(25, 25, MazeRandom.ofSeed(6));
+        maze.generateMaze();
+        PathCache cache = new PathCache(1 << 20);
+        BFS cached = new BFS(maze, cache);
+        BFS plain = new BFS(maze);
+
+        plain.findPath(0, 0, 24, 24);
+        cached.findPath(0, 0, 24, 24);
+        cached.findPath(0, 0, 24, 24);
+
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cached.assemblePath(new ArrayList<>(maze.assembleMaze())))
+            .isEqualTo(plain.assemblePath(new ArrayList<>(maze.assembleMaze())));
+    }
+
+    @Test
+    public void testAStarHitGivesSamePathAndCost() {
+        KruskalMaze maze = new KruskalMaze(5, 5, 0);
+        maze.generateMaze();
+        PathCache cache = new PathCache(1 << 20);
+        AStar plain = new AStar(maze);
+        AStar first = new AStar(maze, cache);
+        AStar second = new AStar(maze, cache);
+
+        plain.findPath(0, 0, 4, 4);
+        first.findPath(0, 0, 4, 4);
+        second.findPath(0, 0, 4, 4);
+
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(first.pathCost()).isEqualTo(plain.pathCost());
+        assertThat(second.pathCost()).isEqualTo(plain.pathCost());
+        assertThat(second.expandedStates()).isZero();
+        assertThat(Arrays.deepEquals(second.obstacle(), plain.obstacle())).isTrue();
+    }
+
+    @Test
+    public void testSharedCacheKeepsBfsAndAStarPathsApart() {
+        KruskalMaze maze = new KruskalMaze(12, 12, 5);
+        maze.generateMaze();
+        PathCache cache = new PathCache(1 << 20);
+        AStar plain = new AStar(maze);
+        BFS bfs = new BFS(maze, cache);
+        AStar aStar = new AStar(maze, cache);
+
+        plain.findPath(0, 0, 11, 11);
+        bfs.findPath(0, 0, 11, 11);
+        aStar.findPath(0, 0, 11, 11);
+
+        assertThat(cache.stats().hitCount()).isZero();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(aStar.expandedStates()).isPositive();
+        assertThat(aStar.pathCost()).isEqualTo(plain.pathCost());
+    }
+
+    @Test
+    public void testUnreachableGoalIsCached() {
+        PrimMaze maze = new PrimMaze(4, 4, MazeRandom.ofSeed(3));
+        maze.generateMaze();
+        PathCache cache = new PathCache(1 << 10);
+        AtomicInteger solves = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Optional<EncodedPath> path = cache.get(maze.graph(), PathCache.Solver.BFS, 0, 15, key -> {
+                solves.incrementAndGet();
+                return null;
+            });
+            assertThat(path.isPresent()).isFalse();
+        }
+
+        assertThat(solves.get()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectsNonPositiveSize() {
+        assertThatThrownBy(() -> new PathCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
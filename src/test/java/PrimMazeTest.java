@@ -1,4 +1,6 @@
+import backend.academy.MazeGraph;
 import backend.academy.PrimMaze;
+import backend.academy.WallGrid;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,4 +27,34 @@ public class PrimMazeTest {
         Assertions.assertEquals(maze.width() * maze.height() - 1,
             maze.mazeEdges().size());
     }
+
+    @Test
+    public void testLargeMazeIsSpanningTree() {
+        PrimMaze largeMaze = new PrimMaze(300, 200);
+        largeMaze.generateMaze();
+        MazeGraph graph = largeMaze.graph();
+
+        // Walk the maze from the first cell - a spanning tree reaches every cell
+        boolean[] reached = new boolean[graph.cellCount()];
+        int[] stack = new int[graph.cellCount()];
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int size = 0;
+        int reachedCount = 1;
+        stack[size++] = 0;
+        reached[0] = true;
+        while (size > 0) {
+            int cell = stack[--size];
+            int count = graph.neighbors(cell, neighbors);
+            for (int i = 0; i < count; i++) {
+                if (!reached[neighbors[i]]) {
+                    reached[neighbors[i]] = true;
+                    reachedCount++;
+                    stack[size++] = neighbors[i];
+                }
+            }
+        }
+
+        assertThat(graph.passageCount()).isEqualTo(graph.cellCount() - 1);
+        assertThat(reachedCount).isEqualTo(graph.cellCount());
+    }
 }
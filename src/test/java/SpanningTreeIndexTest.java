@@ -0,0 +1,67 @@
+import backend.academy.Direction;
+import backend.academy.SpanningTreeIndex;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SpanningTreeIndexTest {
+
+    // Comb: the top row is the spine, every column hangs down from it
+    private static WallGrid comb(int width, int height) {
+        WallGrid grid = new WallGrid(width, height);
+        for (int col = 0; col < width; col++) {
+            if (col < width - 1) {
+                grid.open(0, col, Direction.EAST);
+            }
+            for (int row = 0; row < height - 1; row++) {
+                grid.open(row, col, Direction.SOUTH);
+            }
+        }
+        return grid;
+    }
+
+    @Test
+    public void testDistanceFollowsTreePath() {
+        WallGrid grid = comb(7, 50);
+        SpanningTreeIndex tree = new SpanningTreeIndex(grid);
+
+        // Neighbours across a missing wall are far apart in the tree
+        assertThat(tree.distance(grid.cellId(49, 2), grid.cellId(49, 3))).isEqualTo(2 * 49 + 1);
+        assertThat(tree.distance(grid.cellId(10, 4), grid.cellId(30, 4))).isEqualTo(20);
+        assertThat(tree.distance(grid.cellId(5, 5), grid.cellId(5, 5))).isZero();
+    }
+
+    @Test
+    public void testLowestCommonAncestor() {
+        WallGrid grid = comb(7, 50);
+        SpanningTreeIndex tree = new SpanningTreeIndex(grid);
+
+        assertThat(tree.lowestCommonAncestor(grid.cellId(40, 6), grid.cellId(3, 2))).isEqualTo(grid.cellId(0, 2));
+        assertThat(tree.lowestCommonAncestor(grid.cellId(40, 6), grid.cellId(17, 6))).isEqualTo(grid.cellId(17, 6));
+        assertThat(tree.depth(grid.cellId(40, 6))).isEqualTo(46);
+        assertThat(tree.ancestorAtDepth(grid.cellId(40, 6), 10)).isEqualTo(grid.cellId(4, 6));
+    }
+
+    @Test
+    public void testRejectsGridThatIsNotATree() {
+        WallGrid grid = comb(3, 3);
+        grid.open(1, 0, Direction.EAST);
+
+        assertThatThrownBy(() -> new SpanningTreeIndex(grid)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRejectsCycleWithTreePassageCount() {
+        // A 2x2 ring has four passages; the 3x2 grid needs five, the last one goes to the cut-off cells
+        WallGrid grid = new WallGrid(3, 2);
+        grid.open(0, 0, Direction.EAST);
+        grid.open(0, 1, Direction.SOUTH);
+        grid.open(1, 1, Direction.WEST);
+        grid.open(1, 0, Direction.NORTH);
+        grid.open(0, 2, Direction.SOUTH);
+
+        assertThatThrownBy(() -> new SpanningTreeIndex(grid)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
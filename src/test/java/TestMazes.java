@@ -0,0 +1,60 @@
+import backend.academy.AbstractGraphMaze;
+import backend.academy.Direction;
+import backend.academy.KruskalMaze;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+import backend.academy.WallGrid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+// Mazes and checks shared by the solver tests
+final class TestMazes {
+
+    private TestMazes() {
+    }
+
+    // A Kruskal maze (weights 1..3) or a Prim maze (no weights) with random passages opened east
+    // or south that make cycles, weighing 1..3 if weighted and 0 otherwise
+    static MazeGraph withCycles(int width, int height, long seed, int extraPassages, boolean weighted) {
+        AbstractGraphMaze maze = weighted ? new KruskalMaze(width, height, seed)
+            : new PrimMaze(width, height, MazeRandom.ofSeed(seed));
+        maze.generateMaze();
+        WallGrid grid = copy(maze.graph());
+        Random random = new Random(seed);
+        for (int i = 0; i < extraPassages; i++) {
+            grid.open(random.nextInt(height - 1), random.nextInt(width - 1),
+                random.nextBoolean() ? Direction.EAST : Direction.SOUTH, weighted ? 1 + random.nextInt(3) : 0);
+        }
+        return grid.freeze();
+    }
+
+    // A grid with the passages and weights of the snapshot, to be edited further
+    static WallGrid copy(MazeGraph graph) {
+        WallGrid grid = new WallGrid(graph.width(), graph.height());
+        for (int cell = 0; cell < graph.cellCount(); cell++) {
+            for (Direction direction : new Direction[] {Direction.EAST, Direction.SOUTH}) {
+                if (graph.isOpen(cell, direction)) {
+                    grid.open(cell, direction, graph.weight(cell, direction));
+                }
+            }
+        }
+        return grid;
+    }
+
+    // Checks that the path is walkable and returns its cost
+    static int walk(MazeGraph graph, int[] cells, int length, int start, int goal) {
+        assertThat(cells[0]).isEqualTo(start);
+        assertThat(cells[length - 1]).isEqualTo(goal);
+        int cost = 0;
+        for (int i = 1; i < length; i++) {
+            Direction direction = Direction.between(graph.row(cells[i - 1]), graph.col(cells[i - 1]),
+                graph.row(cells[i]), graph.col(cells[i]));
+            assertThat(graph.isOpen(cells[i - 1], direction)).isTrue();
+            cost += Math.max(graph.weight(cells[i - 1], direction), 1);
+        }
+        return cost;
+    }
+}
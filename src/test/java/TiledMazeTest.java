@@ -0,0 +1,48 @@
+import backend.academy.MazeRandom;
+import backend.academy.SpanningTreeIndex;
+import backend.academy.TiledMaze;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class TiledMazeTest {
+
+    private static WallGrid toGrid(TiledMaze maze) {
+        WallGrid grid = new WallGrid(maze.width(), maze.height());
+        maze.mazeEdges().forEach(grid::open);
+        return grid;
+    }
+
+    @Test
+    public void testMazeIsSpanningTree() {
+        int[][] sizes = {{1, 1}, {7, 5}, {64, 64}, {101, 67}};
+        for (int[] size : sizes) {
+            TiledMaze maze = new TiledMaze(size[0], size[1], MazeRandom.ofSeed(5), 16, ForkJoinPool.commonPool());
+            maze.generateMaze();
+
+            assertThat(maze.mazeEdges()).hasSize(size[0] * size[1] - 1);
+            // The index accepts only passages that connect all cells without cycles
+            assertThat(new SpanningTreeIndex(toGrid(maze)).cellCount()).isEqualTo(size[0] * size[1]);
+        }
+    }
+
+    @Test
+    public void testSameSeedGivesSameMazeOnAnyPool() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool wide = new ForkJoinPool(4);
+        try {
+            TiledMaze first = new TiledMaze(150, 90, MazeRandom.ofSeed(9), 20, single);
+            TiledMaze second = new TiledMaze(150, 90, MazeRandom.ofSeed(9), 20, wide);
+            first.generateMaze();
+            second.generateMaze();
+
+            assertThat(first.assembleMaze()).isEqualTo(second.assembleMaze());
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+import backend.academy.BfsEngine;
+import backend.academy.Cell;
+import backend.academy.MazeGraph;
+import backend.academy.MazeRandom;
+import backend.academy.PrimMaze;
+import backend.academy.TreePathIndex;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+public class TreePathIndexTest {
+
+    @Test
+    public void testPathsMatchBfs() {
+        PrimMaze maze = new PrimMaze(50, 35, MazeRandom.ofSeed(12));
+        maze.generateMaze();
+        MazeGraph graph = maze.graph();
+        TreePathIndex index = new TreePathIndex(graph);
+        BfsEngine bfs = new BfsEngine(graph);
+        int[] expected = new int[graph.cellCount()];
+        int[] actual = new int[graph.cellCount()];
+        Random random = new Random(12);
+
+        for (int query = 0; query < 300; query++) {
+            int from = random.nextInt(graph.cellCount());
+            int to = random.nextInt(graph.cellCount());
+            bfs.search(from, to);
+            int length = bfs.path(to, expected);
+
+            assertThat(index.distance(from, to)).isEqualTo(length - 1);
+            assertThat(index.path(from, to, actual)).isEqualTo(length);
+            for (int i = 0; i < length; i++) {
+                assertThat(actual[i]).isEqualTo(expected[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testPathOfCells() {
+        PrimMaze maze = new PrimMaze(6, 4, MazeRandom.ofSeed(2));
+        maze.generateMaze();
+        TreePathIndex index = new TreePathIndex(maze.graph());
+
+        List<Cell> path = index.path(new Cell(3, 5), new Cell(0, 0));
+
+        assertThat(path.getFirst()).isEqualTo(new Cell(3, 5));
+        assertThat(path.getLast()).isEqualTo(new Cell(0, 0));
+        assertThat(index.path(new Cell(2, 2), new Cell(2, 2))).containsExactly(new Cell(2, 2));
+    }
+}
@@ -0,0 +1,74 @@
+import backend.academy.Cell;
+import backend.academy.Direction;
+import backend.academy.Edge;
+import backend.academy.WallGrid;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WallGridTest {
+    private WallGrid grid;
+
+    @BeforeEach
+    public void setUp() {
+        grid = new WallGrid(3, 2);
+    }
+
+    @Test
+    public void testAllWallsAreClosedAtStart() {
+        for (int row = 0; row < grid.height(); row++) {
+            for (int col = 0; col < grid.width(); col++) {
+                for (Direction direction : Direction.values()) {
+                    assertThat(grid.isOpen(row, col, direction)).isFalse();
+                }
+            }
+        }
+        assertThat(grid.passageCount()).isZero();
+    }
+
+    @Test
+    public void testOpenedPassageIsVisibleFromBothCells() {
+        grid.open(0, 1, Direction.SOUTH, 3);
+
+        assertThat(grid.isOpen(0, 1, Direction.SOUTH)).isTrue();
+        assertThat(grid.isOpen(1, 1, Direction.NORTH)).isTrue();
+        assertThat(grid.weight(1, 1, Direction.NORTH)).isEqualTo(3);
+        assertThat(grid.isOpen(0, 1, Direction.EAST)).isFalse();
+        assertThat(grid.passageCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBordersCannotBeOpened() {
+        assertThatThrownBy(() -> grid.open(0, 2, Direction.EAST))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(grid.isOpen(0, 0, Direction.WEST)).isFalse();
+    }
+
+    @Test
+    public void testPassagesMatchOpenedEdges() {
+        grid.open(new Edge(new Cell(1, 1), new Cell(1, 0), 1));
+        grid.open(0, 0, Direction.EAST);
+        grid.close(1, 0, Direction.EAST);
+
+        assertThat(grid.passages()).hasSize(1);
+        assertThat(grid.passages().getFirst().cell2()).isEqualTo(new Cell(0, 1));
+    }
+
+    @Test
+    public void testNeighborsAreWrittenIntoBuffer() {
+        grid.open(1, 1, Direction.WEST, 1);
+        grid.open(1, 1, Direction.NORTH, 2);
+        int[] neighbors = new int[WallGrid.MAX_NEIGHBORS];
+        int[] weights = new int[WallGrid.MAX_NEIGHBORS];
+
+        int count = grid.neighbors(grid.cellId(1, 1), neighbors, weights);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(neighbors[0]).isEqualTo(grid.cellId(0, 1));
+        assertThat(weights[0]).isEqualTo(2);
+        assertThat(neighbors[1]).isEqualTo(grid.cellId(1, 0));
+        assertThat(weights[1]).isEqualTo(1);
+    }
+}